@@ -0,0 +1,158 @@
+package bench;
+
+import core.Book;
+import core.InMemoryStorageBackend;
+import core.LibrarySystem;
+import core.Member;
+import core.Transaction;
+
+import java.io.FileNotFoundException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Command-line stress check of copy accounting under a checkout storm on one popular
+ * title: threads borrow and return copies of a single Book, then issue and return it
+ * through a shared LibrarySystem on in-memory storage. It fails (exit status 1) if more
+ * copies are ever out than exist, or if the counts disagree afterwards.
+ * Usage: CheckoutStress [threads] [loans per thread] [copies]
+ */
+public class CheckoutStress {
+
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_LOANS = 50_000;
+    private static final int DEFAULT_COPIES = 3;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int loans = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LOANS;
+        int copies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_COPIES;
+
+        System.out.printf("%d threads, %d loans each, %d copies of one title%n", threads, loans, copies);
+        boolean passed = stressBook(threads, loans, copies);
+        passed &= stressLibrary(threads, Math.max(1, loans / 10), copies);
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // ==================== STORMS ====================
+
+    /**
+     * Borrow and return copies of one Book directly
+     */
+    private static boolean stressBook(int threads, int loans, int copies) throws InterruptedException {
+        Book book = new Book("978-0000000000", "Popular title", "Author", copies);
+        AtomicInteger out = new AtomicInteger();
+        AtomicInteger mostOut = new AtomicInteger();
+        AtomicLong borrowed = new AtomicLong();
+
+        long nanos = storm(threads, () -> {
+            for (int i = 0; i < loans; i++) {
+                if (book.borrowCopy()) {
+                    borrowed.incrementAndGet();
+                    mostOut.accumulateAndGet(out.incrementAndGet(), Math::max);
+                    // Counted back in before the copy is, so out never runs ahead of the book
+                    out.decrementAndGet();
+                    book.returnCopy();
+                }
+            }
+        });
+
+        return report("Book", borrowed.get(), nanos, mostOut.get(), copies,
+                book.getAvailableCopies() == copies && book.getTimesBorrowed() == borrowed.get());
+    }
+
+    /**
+     * Issue and return one book through a shared LibrarySystem, each thread for its own members
+     */
+    private static boolean stressLibrary(int threads, int loans, int copies)
+            throws InterruptedException, FileNotFoundException {
+        String isbn = "978-0000000000";
+        List<Book> books = Collections.singletonList(new Book(isbn, "Popular title", "Author", copies));
+        List<Member> members = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            members.add(new Member("M" + t, "Member " + t, "member" + t + "@email.com"));
+        }
+        LibrarySystem system = new LibrarySystem(new InMemoryStorageBackend(
+                books, members, Collections.emptyList(), Collections.emptyList()));
+        AtomicInteger out = new AtomicInteger();
+        AtomicInteger mostOut = new AtomicInteger();
+        AtomicLong issued = new AtomicLong();
+
+        // Most issues find no copy left; keep their error lines out of the report
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        long nanos;
+        try {
+            nanos = storm(threads, new Runnable() {
+                private final AtomicInteger next = new AtomicInteger();
+
+                @Override
+                public void run() {
+                    String memberID = "M" + next.getAndIncrement();
+                    for (int i = 0; i < loans; i++) {
+                        Transaction transaction = system.issueBook(memberID, isbn);
+                        if (transaction != null) {
+                            issued.incrementAndGet();
+                            mostOut.accumulateAndGet(out.incrementAndGet(), Math::max);
+                            out.decrementAndGet();
+                            system.returnBook(transaction.getTransactionID());
+                        }
+                    }
+                }
+            });
+        } finally {
+            System.setErr(err);
+        }
+
+        Book book = system.searchByISBN(isbn);
+        boolean consistent = book.getAvailableCopies() == copies
+                && book.getTimesBorrowed() == issued.get()
+                && system.getActiveTransactionsByISBN(isbn).isEmpty();
+        return report("LibrarySystem", issued.get(), nanos, mostOut.get(), copies, consistent);
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Run task on every thread at once and return the elapsed nanoseconds
+     */
+    private static long storm(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                task.run();
+            }, "checkout-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static boolean report(String name, long loans, long nanos, int mostOut, int copies, boolean consistent) {
+        boolean passed = mostOut <= copies && consistent;
+        System.out.printf("%-14s %10d loans %12.0f loans/s  most out %d of %d  counts %s  %s%n",
+                name, loans, loans / (nanos / 1e9), mostOut, copies,
+                consistent ? "consistent" : "INCONSISTENT", passed ? "ok" : "FAILED");
+        return passed;
+    }
+}
@@ -0,0 +1,96 @@
+package bench;
+
+import core.Book;
+import core.DataSet;
+import core.InMemoryStorageBackend;
+import core.LibrarySystem;
+import core.Member;
+import core.StorageBackend;
+import core.Transaction;
+import core.User;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Command-line benchmark of LibrarySystem issue/return throughput with storage
+ * taken out of the picture: in-memory storage (row updates, no serialization),
+ * no-op storage, and no-op storage that counts the JSON bytes each save would
+ * have written. Works on a generated catalogue and never touches the data directory.
+ * Usage: LoanBenchmark [books] [members] [loans]
+ */
+public class LoanBenchmark {
+
+    private static final int DEFAULT_BOOKS = 2_000;
+    private static final int DEFAULT_MEMBERS = 500;
+    private static final int DEFAULT_LOANS = 1_000;
+
+    public static void main(String[] args) throws FileNotFoundException {
+        int bookCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BOOKS;
+        int memberCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MEMBERS;
+        int loans = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_LOANS;
+
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            books.add(new Book(String.format("978-%010d", i), "Title of book " + i, "Author " + (i % 500), 2));
+        }
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Member(String.format("M%06d", i), "Member " + i, "member" + i + "@email.com"));
+        }
+        List<Transaction> none = Collections.emptyList();
+        List<User> noUsers = Collections.emptyList();
+        InMemoryStorageBackend seed = new InMemoryStorageBackend(books, members, none, noUsers);
+
+        System.out.printf("%d books, %d members, %d issues and returns per run%n", bookCount, memberCount, loans);
+        System.out.printf("%-16s %12s %14s %14s%n", "storage", "loans/s", "records/loan", "bytes/loan");
+        run("in-memory", () -> new InMemoryStorageBackend(books, members, none, noUsers), loans, bookCount, memberCount);
+        run("no-op", () -> new NoOpStorageBackend(seed, false), loans, bookCount, memberCount);
+        run("no-op + bytes", () -> new NoOpStorageBackend(seed, true), loans, bookCount, memberCount);
+    }
+
+    // ==================== MEASUREMENT ====================
+
+    private static void run(String name, Supplier<StorageBackend> storage, int loans,
+                            int bookCount, int memberCount) throws FileNotFoundException {
+        // Warm-up on a separate system so the measured one starts with no transactions
+        cycle(new LibrarySystem(storage.get()), Math.min(loans, 500), bookCount, memberCount);
+
+        StorageBackend backend = storage.get();
+        LibrarySystem system = new LibrarySystem(backend);
+        long start = System.nanoTime();
+        cycle(system, loans, bookCount, memberCount);
+        long nanos = System.nanoTime() - start;
+
+        String records = "-";
+        String bytes = "-";
+        if (backend instanceof NoOpStorageBackend) {
+            NoOpStorageBackend noOp = (NoOpStorageBackend) backend;
+            long total = 0;
+            for (DataSet set : DataSet.values()) {
+                total += noOp.getRecordsSaved(set);
+            }
+            records = String.format("%.0f", (double) total / loans);
+            bytes = noOp.getBytesSaved() > 0 ? String.format("%.0f", (double) noOp.getBytesSaved() / loans) : "-";
+        }
+        System.out.printf("%-16s %12.0f %14s %14s%n", name, loans / (nanos / 1e9), records, bytes);
+    }
+
+    /**
+     * Issue and return loans books, spreading them over the catalogue and the members
+     */
+    private static void cycle(LibrarySystem system, int loans, int bookCount, int memberCount) {
+        for (int i = 0; i < loans; i++) {
+            String isbn = String.format("978-%010d", (int) ((i * 7919L) % bookCount));
+            String memberID = String.format("M%06d", i % memberCount);
+            Transaction transaction = system.issueBook(memberID, isbn);
+            if (transaction == null || system.returnBook(transaction.getTransactionID()) == null) {
+                throw new IllegalStateException("Loan " + i + " of " + isbn + " to " + memberID + " failed");
+            }
+        }
+        system.flush();
+    }
+}
@@ -0,0 +1,195 @@
+package bench;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import core.Book;
+import core.DataSet;
+import core.JsonAdapters;
+import core.Member;
+import core.StorageBackend;
+import core.Transaction;
+import core.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage that discards every save, for profiling LibrarySystem logic with
+ * no storage cost at all. It loads nothing, or a fixed data set from a seed
+ * backend.
+ *
+ * It counts the saves and records it is given. With countBytes on, it also
+ * encodes each save as the JSON backend would and counts the bytes, without
+ * writing them anywhere, so a run shows how much the JSON files would have
+ * been rewritten. Like the JSON backend without a journal, it saves whole
+ * collections, not single records.
+ */
+public class NoOpStorageBackend implements StorageBackend {
+
+    // Fields
+    private final StorageBackend seed;
+    private final Gson gson;
+    private final EnumMap<DataSet, Long> saves = new EnumMap<>(DataSet.class);
+    private final EnumMap<DataSet, Long> records = new EnumMap<>(DataSet.class);
+    private final EnumMap<DataSet, Long> bytes = new EnumMap<>(DataSet.class);
+
+    // Constructors
+    public NoOpStorageBackend() {
+        this(null, false);
+    }
+
+    public NoOpStorageBackend(boolean countBytes) {
+        this(null, countBytes);
+    }
+
+    /**
+     * Load from seed (null for nothing) and discard all saves
+     */
+    public NoOpStorageBackend(StorageBackend seed, boolean countBytes) {
+        this.seed = seed;
+        gson = countBytes ? JsonAdapters.register(new GsonBuilder()).create() : null;
+        for (DataSet set : DataSet.values()) {
+            saves.put(set, 0L);
+            records.put(set, 0L);
+            bytes.put(set, 0L);
+        }
+    }
+
+    // Getters
+
+    /**
+     * Number of times a collection was saved
+     */
+    public synchronized long getSaves(DataSet set) {
+        return saves.get(set);
+    }
+
+    /**
+     * Number of records passed to saves of a collection
+     */
+    public synchronized long getRecordsSaved(DataSet set) {
+        return records.get(set);
+    }
+
+    /**
+     * JSON bytes the saves of a collection would have written (0 unless counting bytes)
+     */
+    public synchronized long getBytesSaved(DataSet set) {
+        return bytes.get(set);
+    }
+
+    /**
+     * JSON bytes all saves would have written (0 unless counting bytes)
+     */
+    public synchronized long getBytesSaved() {
+        long total = 0;
+        for (long count : bytes.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    // ==================== LOAD METHODS ====================
+
+    @Override
+    public void loadBooks(Consumer<Book> sink) {
+        if (seed != null) {
+            seed.loadBooks(sink);
+        }
+    }
+
+    @Override
+    public void loadMembers(Consumer<Member> sink) {
+        if (seed != null) {
+            seed.loadMembers(sink);
+        }
+    }
+
+    @Override
+    public void loadTransactions(Consumer<Transaction> sink) {
+        if (seed != null) {
+            seed.loadTransactions(sink);
+        }
+    }
+
+    @Override
+    public void loadUsers(Consumer<User> sink) {
+        if (seed != null) {
+            seed.loadUsers(sink);
+        }
+    }
+
+    // ==================== SAVE METHODS ====================
+
+    @Override
+    public boolean saveBooks(List<Book> books) {
+        return count(DataSet.BOOKS, books, Book.class);
+    }
+
+    @Override
+    public boolean saveMembers(List<Member> members) {
+        return count(DataSet.MEMBERS, members, Member.class);
+    }
+
+    @Override
+    public boolean saveTransactions(List<Transaction> transactions) {
+        return count(DataSet.TRANSACTIONS, transactions, Transaction.class);
+    }
+
+    @Override
+    public boolean saveUsers(List<User> users) {
+        return count(DataSet.USERS, users, User.class);
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private synchronized <T> boolean count(DataSet set, List<T> items, Class<T> type) {
+        saves.merge(set, 1L, Long::sum);
+        records.merge(set, (long) items.size(), Long::sum);
+        if (gson == null) {
+            return true;
+        }
+
+        ByteCounter counter = new ByteCounter();
+        try {
+            // Encoded like DataManager.writeList, into a stream that only counts
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8));
+            TypeAdapter<T> adapter = gson.getAdapter(type);
+            writer.beginArray();
+            for (T item : items) {
+                adapter.write(writer, item);
+            }
+            writer.endArray();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error encoding " + set + ": " + e.getMessage());
+            return false;
+        }
+        bytes.merge(set, counter.count, Long::sum);
+        return true;
+    }
+
+    /**
+     * Output stream that discards its bytes and counts them
+     */
+    private static class ByteCounter extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package bench;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import core.Book;
+import core.JsonAdapters;
+import core.Member;
+import core.Transaction;
+import core.User;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Command-line benchmark of JSON throughput for the entity classes. It compares the
+ * previous path (Gson.toJson/fromJson per record, reflective adapters, tree-based
+ * LocalDate adapter) with the current one (the JsonAdapters streaming adapters,
+ * looked up once per list as DataManager does). Book packs its copy counts into
+ * one atomic field, which reflection cannot see through, so its old path is a
+ * tree-based adapter writing the same fields. Works on generated in-memory
+ * records and never touches the data directory.
+ * Usage: SerializationBenchmark [records] [rounds]
+ */
+public class SerializationBenchmark {
+
+    private static final int DEFAULT_RECORDS = 100_000;
+    private static final int DEFAULT_ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RECORDS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+
+        Gson reflective = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new TreeLocalDateAdapter())
+                .registerTypeAdapter(Book.class, new TreeBookAdapter())
+                .create();
+        Gson streaming = JsonAdapters.register(new GsonBuilder()).create();
+
+        Random random = new Random(42);
+        System.out.printf("%d records per type, best of %d rounds%n", records, rounds);
+        System.out.printf("%-12s %-10s %12s %12s %10s %10s%n",
+                "type", "adapter", "write rec/s", "read rec/s", "write MB/s", "read MB/s");
+        run("Book", Book.class, generate(records, i -> book(i, random)), reflective, streaming, rounds);
+        run("Member", Member.class, generate(records, i -> member(i, random)), reflective, streaming, rounds);
+        run("Transaction", Transaction.class, generate(records, i -> transaction(i, random)), reflective, streaming, rounds);
+        run("User", User.class, generate(records, i -> user(i, random)), reflective, streaming, rounds);
+    }
+
+    // ==================== MEASUREMENT ====================
+
+    private static <T> void run(String name, Class<T> type, List<T> items,
+                                Gson reflective, Gson streaming, int rounds) throws IOException {
+        byte[] expected = write(reflective, items, type, false);
+        byte[] actual = write(streaming, items, type, true);
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException(name + ": streaming output differs from reflective output");
+        }
+        if (!Arrays.equals(expected, write(streaming, read(streaming, actual, type, true), type, true))) {
+            throw new IllegalStateException(name + ": streaming round trip is lossy");
+        }
+
+        // Alternate the two adapters round by round so JIT and GC drift affects both alike
+        long[] reflectiveBest = {Long.MAX_VALUE, Long.MAX_VALUE};
+        long[] streamingBest = {Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int round = 0; round <= rounds; round++) {
+            long[] reflectiveTimes = measure(reflective, items, type, false);
+            long[] streamingTimes = measure(streaming, items, type, true);
+            if (round > 0) { // round 0 is warm-up
+                keepBest(reflectiveBest, reflectiveTimes);
+                keepBest(streamingBest, streamingTimes);
+            }
+        }
+        report(name, "reflective", reflectiveBest, items.size(), expected.length);
+        report(name, "streaming", streamingBest, items.size(), actual.length);
+    }
+
+    /**
+     * Write and read times in nanoseconds for one pass over the items
+     */
+    private static <T> long[] measure(Gson gson, List<T> items, Class<T> type, boolean direct) throws IOException {
+        long start = System.nanoTime();
+        byte[] bytes = write(gson, items, type, direct);
+        long written = System.nanoTime();
+        List<T> loaded = read(gson, bytes, type, direct);
+        long done = System.nanoTime();
+        if (loaded.size() != items.size()) {
+            throw new IllegalStateException("Read " + loaded.size() + " of " + items.size() + " records");
+        }
+        return new long[]{written - start, done - written};
+    }
+
+    private static void keepBest(long[] best, long[] times) {
+        best[0] = Math.min(best[0], times[0]);
+        best[1] = Math.min(best[1], times[1]);
+    }
+
+    private static void report(String name, String adapter, long[] nanos, int records, int bytes) {
+        System.out.printf("%-12s %-10s %12.0f %12.0f %10.1f %10.1f%n", name, adapter,
+                records / (nanos[0] / 1e9), records / (nanos[1] / 1e9),
+                bytes / 1e6 / (nanos[0] / 1e9), bytes / 1e6 / (nanos[1] / 1e9));
+    }
+
+    /**
+     * Stream a list as a JSON array, record by record.
+     * direct uses the adapter itself, as DataManager does; otherwise each record goes through Gson.toJson.
+     */
+    private static <T> byte[] write(Gson gson, List<T> items, Class<T> type, boolean direct) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        writer.beginArray();
+        for (T item : items) {
+            if (direct) {
+                adapter.write(writer, item);
+            } else {
+                gson.toJson(item, type, writer);
+            }
+        }
+        writer.endArray();
+        writer.flush();
+        return bytes.toByteArray();
+    }
+
+    private static <T> List<T> read(Gson gson, byte[] bytes, Class<T> type, boolean direct) throws IOException {
+        ArrayList<T> items = new ArrayList<>();
+        JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+        reader.setStrictness(Strictness.LENIENT);
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            items.add(direct ? adapter.read(reader) : gson.fromJson(reader, type));
+        }
+        reader.endArray();
+        return items;
+    }
+
+    // ==================== DATA GENERATION ====================
+
+    private static <T> List<T> generate(int count, IntFunction<T> factory) {
+        ArrayList<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(factory.apply(i));
+        }
+        return items;
+    }
+
+    private static Book book(int i, Random random) {
+        int copies = 1 + random.nextInt(5);
+        return new Book(String.format("978-%010d", i), "Title of book " + i, "Author " + random.nextInt(5000),
+                copies, random.nextInt(copies + 1), random.nextInt(200));
+    }
+
+    private static Member member(int i, Random random) {
+        Member member = new Member(String.format("M%06d", i), "Member " + i, "member" + i + "@email.com");
+        for (int j = random.nextInt(4); j > 0; j--) {
+            member.addBorrowedBook(String.format("978-%010d", random.nextInt(100_000)));
+        }
+        return member;
+    }
+
+    private static Transaction transaction(int i, Random random) {
+        LocalDate issued = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2000));
+        Transaction transaction = new Transaction(String.format("T%09d", i), String.format("M%06d", random.nextInt(20_000)),
+                "Member " + i, String.format("978-%010d", random.nextInt(100_000)), "Title of book " + i,
+                issued, issued.plusDays(14));
+        // Most loans are closed, so most records carry a return date and a fine
+        if (random.nextInt(10) > 0) {
+            transaction.setReturnDate(issued.plusDays(random.nextInt(30)));
+            transaction.setFine(random.nextInt(4) * 5.0);
+            transaction.setActive(false);
+        }
+        return transaction;
+    }
+
+    private static User user(int i, Random random) {
+        return new User("user" + i, "password" + random.nextInt(1_000_000), i % 10 == 0 ? "ADMIN" : "MEMBER");
+    }
+
+    /**
+     * The LocalDate adapter DataManager used before the streaming adapters, going through JsonElement
+     */
+    private static class TreeLocalDateAdapter implements JsonSerializer<LocalDate>, JsonDeserializer<LocalDate> {
+        @Override
+        public JsonElement serialize(LocalDate date, Type typeOfSrc, JsonSerializationContext context) {
+            return new JsonPrimitive(date.toString());
+        }
+
+        @Override
+        public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            return LocalDate.parse(json.getAsString());
+        }
+    }
+
+    /**
+     * Book as reflective Gson wrote it before the copy counts were packed, going through JsonObject
+     */
+    private static class TreeBookAdapter implements JsonSerializer<Book>, JsonDeserializer<Book> {
+        @Override
+        public JsonElement serialize(Book book, Type typeOfSrc, JsonSerializationContext context) {
+            JsonObject json = new JsonObject();
+            json.addProperty("isbn", book.getIsbn());
+            json.addProperty("title", book.getTitle());
+            json.addProperty("author", book.getAuthor());
+            json.addProperty("totalCopies", book.getTotalCopies());
+            json.addProperty("availableCopies", book.getAvailableCopies());
+            json.addProperty("timesBorrowed", book.getTimesBorrowed());
+            return json;
+        }
+
+        @Override
+        public Book deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            JsonObject object = json.getAsJsonObject();
+            return new Book(string(object, "isbn"), string(object, "title"), string(object, "author"),
+                    number(object, "totalCopies"), number(object, "availableCopies"), number(object, "timesBorrowed"));
+        }
+
+        private static String string(JsonObject object, String name) {
+            JsonElement value = object.get(name);
+            return value == null || value.isJsonNull() ? null : value.getAsString();
+        }
+
+        private static int number(JsonObject object, String name) {
+            JsonElement value = object.get(name);
+            return value == null || value.isJsonNull() ? 0 : value.getAsInt();
+        }
+    }
+}
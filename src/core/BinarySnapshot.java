@@ -0,0 +1,315 @@
+package core;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary image of all four collections, used for fast startup.
+ *
+ * Layout (big-endian):
+ *   header  : magic "LMSB", version, body length, CRC32 of the body
+ *   strings : count, then each string as a byte length and UTF-8 bytes
+ *   sections: books, members, transactions, users; each a byte length,
+ *             a record count and the records
+ *
+ * Records refer to strings by their index in the table (-1 for null), so
+ * repeated authors, titles and member names are stored once. Dates are
+ * epoch-day ints. The whole file is read with one sequential read.
+ */
+public class BinarySnapshot {
+
+    private static final int MAGIC = 0x4C4D5342; // "LMSB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int NULL_STRING = -1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    // Fields
+    private final List<Book> books;
+    private final List<Member> members;
+    private final List<Transaction> transactions;
+    private final List<User> users;
+
+    // Constructor
+    public BinarySnapshot(List<Book> books, List<Member> members,
+                          List<Transaction> transactions, List<User> users) {
+        this.books = books;
+        this.members = members;
+        this.transactions = transactions;
+        this.users = users;
+    }
+
+    // Getters
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    // ==================== FILE I/O ====================
+
+    /**
+     * Read a snapshot file
+     * @throws IOException if the file is unreadable, truncated, corrupt or of another version
+     */
+    public static BinarySnapshot read(Path path) throws IOException {
+        return decode(Files.readAllBytes(path));
+    }
+
+    /**
+     * Write the snapshot to a temp file, force it to disk and rename it over path
+     */
+    public void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        byte[] bytes = encode();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ==================== ENCODING ====================
+
+    /**
+     * Serialize the snapshot into the binary layout
+     */
+    public byte[] encode() throws IOException {
+        StringTable strings = new StringTable();
+
+        // Records first, so the table holds every string they refer to
+        ByteArrayOutputStream sections = new ByteArrayOutputStream();
+        writeSection(sections, books, (out, book) -> {
+            out.writeInt(strings.id(book.getIsbn()));
+            out.writeInt(strings.id(book.getTitle()));
+            out.writeInt(strings.id(book.getAuthor()));
+            out.writeInt(book.getTotalCopies());
+            out.writeInt(book.getAvailableCopies());
+            out.writeInt(book.getTimesBorrowed());
+        });
+        writeSection(sections, members, (out, member) -> {
+            out.writeInt(strings.id(member.getMemberID()));
+            out.writeInt(strings.id(member.getName()));
+            out.writeInt(strings.id(member.getEmail()));
+            ArrayList<String> borrowed = member.getBorrowedBooks();
+            out.writeInt(borrowed.size());
+            for (String isbn : borrowed) {
+                out.writeInt(strings.id(isbn));
+            }
+        });
+        writeSection(sections, transactions, (out, transaction) -> {
+            out.writeInt(strings.id(transaction.getTransactionID()));
+            out.writeInt(strings.id(transaction.getMemberID()));
+            out.writeInt(strings.id(transaction.getMemberName()));
+            out.writeInt(strings.id(transaction.getIsbn()));
+            out.writeInt(strings.id(transaction.getBookTitle()));
+            out.writeInt(epochDay(transaction.getIssueDate()));
+            out.writeInt(epochDay(transaction.getDueDate()));
+            out.writeInt(epochDay(transaction.getReturnDate()));
+            out.writeDouble(transaction.getFine());
+            out.writeBoolean(transaction.isActive());
+        });
+        writeSection(sections, users, (out, user) -> {
+            out.writeInt(strings.id(user.getUsername()));
+            out.writeInt(strings.id(user.getPassword()));
+            out.writeInt(strings.id(user.getRole()));
+        });
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(sections.size() + 16 * strings.size());
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeInt(strings.size());
+        for (String value : strings.values()) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+        sections.writeTo(out);
+        out.flush();
+
+        byte[] bodyBytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bodyBytes);
+
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + bodyBytes.length);
+        file.putInt(MAGIC).putInt(VERSION).putInt(bodyBytes.length).putInt((int) crc.getValue());
+        file.put(bodyBytes);
+        return file.array();
+    }
+
+    private static <T> void writeSection(ByteArrayOutputStream sections, List<T> items,
+                                         RecordWriter<T> writer) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(records);
+        out.writeInt(items.size());
+        for (T item : items) {
+            writer.write(out, item);
+        }
+        out.flush();
+
+        DataOutputStream section = new DataOutputStream(sections);
+        section.writeInt(records.size());
+        records.writeTo(section);
+        section.flush();
+    }
+
+    // ==================== DECODING ====================
+
+    /**
+     * Parse a snapshot from its binary layout
+     * @throws IOException if the data is truncated, corrupt or of another version
+     */
+    public static BinarySnapshot decode(byte[] bytes) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a library snapshot");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length != in.remaining()) {
+                throw new IOException("Snapshot length mismatch");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, HEADER_SIZE, length);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            String[] strings = new String[in.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                int size = in.getInt();
+                strings[i] = new String(bytes, in.position(), size, StandardCharsets.UTF_8);
+                in.position(in.position() + size);
+            }
+
+            ArrayList<Book> books = readSection(in, () -> new Book(
+                    string(strings, in.getInt()),
+                    string(strings, in.getInt()),
+                    string(strings, in.getInt()),
+                    in.getInt(),
+                    in.getInt(),
+                    in.getInt()));
+            ArrayList<Member> members = readSection(in, () -> {
+                Member member = new Member(string(strings, in.getInt()),
+                        string(strings, in.getInt()),
+                        string(strings, in.getInt()));
+                ArrayList<String> borrowed = member.getBorrowedBooks();
+                int borrowedCount = in.getInt();
+                for (int i = 0; i < borrowedCount; i++) {
+                    borrowed.add(string(strings, in.getInt()));
+                }
+                return member;
+            });
+            ArrayList<Transaction> transactions = readSection(in, () -> {
+                Transaction transaction = new Transaction();
+                transaction.setTransactionID(string(strings, in.getInt()));
+                transaction.setMemberID(string(strings, in.getInt()));
+                transaction.setMemberName(string(strings, in.getInt()));
+                transaction.setIsbn(string(strings, in.getInt()));
+                transaction.setBookTitle(string(strings, in.getInt()));
+                transaction.setIssueDate(date(in.getInt()));
+                transaction.setDueDate(date(in.getInt()));
+                transaction.setReturnDate(date(in.getInt()));
+                transaction.setFine(in.getDouble());
+                transaction.setActive(in.get() != 0);
+                return transaction;
+            });
+            ArrayList<User> users = readSection(in, () -> new User(
+                    string(strings, in.getInt()),
+                    string(strings, in.getInt()),
+                    string(strings, in.getInt())));
+
+            return new BinarySnapshot(books, members, transactions, users);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt snapshot", e);
+        }
+    }
+
+    private static <T> ArrayList<T> readSection(ByteBuffer in, RecordReader<T> reader) throws IOException {
+        int length = in.getInt();
+        int end = in.position() + length;
+        int count = in.getInt();
+        ArrayList<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(reader.read());
+        }
+        if (in.position() != end) {
+            throw new IOException("Snapshot section length mismatch");
+        }
+        return items;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static String string(String[] strings, int id) {
+        return id == NULL_STRING ? null : strings[id];
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Assigns each distinct string an index in first-use order
+     */
+    private static class StringTable {
+        private final LinkedHashMap<String, Integer> ids = new LinkedHashMap<>();
+
+        int id(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            return ids.computeIfAbsent(value, k -> ids.size());
+        }
+
+        int size() {
+            return ids.size();
+        }
+
+        Iterable<String> values() {
+            return ids.keySet();
+        }
+    }
+
+    private interface RecordWriter<T> {
+        void write(DataOutputStream out, T item) throws IOException;
+    }
+
+    private interface RecordReader<T> {
+        T read();
+    }
+}
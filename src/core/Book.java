@@ -3,6 +3,7 @@ package core;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Book {
 
@@ -10,9 +11,11 @@ public class Book {
     private String isbn;
     private String title;
     private String author;
-    private int totalCopies;
-    private int availableCopies;
-    private int timesBorrowed;
+    private volatile int totalCopies;
+
+    // Available copies (low 32 bits) and times borrowed (high 32 bits), packed so a
+    // borrow changes both in one compare-and-set and concurrent checkouts need no lock
+    private final AtomicLong copies = new AtomicLong();
 
     // Constructors
     public Book() {
@@ -23,8 +26,7 @@ public class Book {
         this.title = title;
         this.author = author;
         this.totalCopies = totalCopies;
-        availableCopies = totalCopies;
-        timesBorrowed = 0;
+        copies.set(pack(totalCopies, 0));
     }
 
     public Book(String isbn, String title, String author, int totalCopies,
@@ -33,8 +35,7 @@ public class Book {
         this.title = title;
         this.author = author;
         this.totalCopies = totalCopies;
-        this.availableCopies = availableCopies;
-        this.timesBorrowed = timesBorrowed;
+        copies.set(pack(availableCopies, timesBorrowed));
     }
 
     // Getters
@@ -55,11 +56,11 @@ public class Book {
     }
 
     public int getAvailableCopies() {
-        return availableCopies;
+        return available(copies.get());
     }
 
     public int getTimesBorrowed() {
-        return timesBorrowed;
+        return borrowed(copies.get());
     }
 
     // Setters
@@ -80,42 +81,57 @@ public class Book {
     }
 
     public void setAvailableCopies(int availableCopies) {
-        this.availableCopies = availableCopies;
+        copies.updateAndGet(packed -> pack(availableCopies, borrowed(packed)));
     }
 
     public void setTimesBorrowed(int timesBorrowed) {
-        this.timesBorrowed = timesBorrowed;
+        copies.updateAndGet(packed -> pack(available(packed), timesBorrowed));
     }
 
     // Business Logic Methods
 
     public boolean isAvailable() {
-        return availableCopies > 0;
+        return getAvailableCopies() > 0;
     }
 
     public int getBorrowedCopies() {
-        return totalCopies - availableCopies;
+        return totalCopies - getAvailableCopies();
     }
 
+    /**
+     * Take a copy if one is available; safe to call from several threads at once
+     */
     public boolean borrowCopy() {
-        if(availableCopies > 0){
-            availableCopies--;
-            timesBorrowed++;
-            return true;
+        while (true) {
+            long packed = copies.get();
+            int available = available(packed);
+            if (available <= 0) {
+                return false;
+            }
+            if (copies.compareAndSet(packed, pack(available - 1, borrowed(packed) + 1))) {
+                return true;
+            }
         }
-        return false;
     }
 
+    /**
+     * Put a copy back unless all are already in; safe to call from several threads at once
+     */
     public boolean returnCopy() {
-        if (availableCopies < totalCopies){
-            availableCopies++;
-            return true;
+        while (true) {
+            long packed = copies.get();
+            int available = available(packed);
+            if (available >= totalCopies) {
+                return false;
+            }
+            if (copies.compareAndSet(packed, pack(available + 1, borrowed(packed)))) {
+                return true;
+            }
         }
-        return false;
     }
 
     public double getAvailabilityPercentage() {
-        return ((double) availableCopies / totalCopies) * 100;
+        return ((double) getAvailableCopies() / totalCopies) * 100;
     }
 
     // Utility Methods
@@ -124,7 +140,7 @@ public class Book {
     public String toString() {
         return "Title: " + title + ", \n"
                 + "Author: " + author + ", \n"
-                + "Avaliable Copies: " + availableCopies;
+                + "Avaliable Copies: " + getAvailableCopies();
     }
 
 
@@ -153,4 +169,18 @@ public class Book {
         }
         return hexString.hashCode();
     }
+
+    // Helper Methods
+
+    private static long pack(int available, int borrowed) {
+        return ((long) borrowed << 32) | (available & 0xFFFFFFFFL);
+    }
+
+    private static int available(long packed) {
+        return (int) packed;
+    }
+
+    private static int borrowed(long packed) {
+        return (int) (packed >>> 32);
+    }
 }
\ No newline at end of file
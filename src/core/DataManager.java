@@ -2,24 +2,45 @@ package core;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonSerializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.google.gson.JsonParseException;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.io.*;
-import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
-public class DataManager {
+/**
+ * JSON file storage under data/, with a journal, a memory-mapped transaction
+ * store, a monthly archive of closed loans and a binary snapshot
+ */
+public class DataManager implements StorageBackend {
 
     // File paths
     private static final String DATA_DIR = "data/";
@@ -27,17 +48,78 @@ public class DataManager {
     private static final String MEMBERS_FILE = DATA_DIR + "members.json";
     private static final String TRANSACTIONS_FILE = DATA_DIR + "transactions.json";
     private static final String USERS_FILE = DATA_DIR + "users.json";
+    private static final String JOURNAL_FILE = DATA_DIR + "journal.log";
+    private static final String SNAPSHOT_FILE = DATA_DIR + "library.snap";
+    private static final String TRANSACTION_STORE_FILE = DATA_DIR + "transactions.seg";
+    private static final String ARCHIVE_DIR = DATA_DIR + "archive/";
 
-    // Gson instance for JSON serialization
+    // Crash-safe save: new data goes to a temp file, the previous generation is kept
+    // as a backup, and each generation has a checksum file ("<crc32-hex> <length>")
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String CHECKSUM_SUFFIX = ".crc";
+
+    // Gson instance for JSON serialization (compact; also used for journal lines)
     private Gson gson;
 
+    // Indent saved files for reading by eye (debug only, larger and slower)
+    private boolean prettyPrinting;
+
+    // Keep a binary snapshot next to the JSON files for fast startup
+    private boolean snapshotMode;
+
+    // Journal state
+    private boolean journalMode;
+    private volatile int journalSize; // also read outside the catalog lock to see if a checkpoint is due
+
+    // Memory-mapped transaction history, null if it could not be opened
+    private TransactionStore transactionStore;
+
+    // Closed transactions moved out of the live store, by month of issue
+    private TransactionArchive archive;
+
+    // Opened only to read the files elsewhere: nothing is created, built or written
+    private final boolean readOnly;
+
+    // Write-behind state: latest pending snapshot per file, written once per window
+    private final LinkedHashMap<String, BooleanSupplier> pendingWrites = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService flusher;
+    private long flushWindowMillis;
+    private boolean flushScheduled;
+    private boolean shuttingDown;
+
     // Constructor
     public DataManager() {
-        gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-                .create();
+        this(false);
+    }
+
+    private DataManager(boolean readOnly) {
+        this.readOnly = readOnly;
+        gson = JsonAdapters.register(new GsonBuilder()).create();
+        prettyPrinting = Boolean.getBoolean("lms.prettyJson");
+        archive = new TransactionArchive(Paths.get(ARCHIVE_DIR));
+        snapshotMode = Boolean.parseBoolean(System.getProperty("lms.snapshot", "true"));
+        journalMode = true;
+        journalSize = 0;
+        if (readOnly) {
+            return;
+        }
         createDataDirectory();
+
+        long window = Long.getLong("lms.writeBehindMillis", 0L);
+        if (window > 0) {
+            enableWriteBehind(window);
+        }
+    }
+
+    /**
+     * Open the data directory only to read it, e.g. to import it into another backend.
+     * Nothing is created or written: no directory, no transaction store, no write-behind.
+     * Transactions come from the store if it exists, otherwise from transactions.json.
+     */
+    public static DataManager openReadOnly() {
+        return new DataManager(true);
     }
 
     // ==================== DIRECTORY SETUP ====================
@@ -60,33 +142,196 @@ public class DataManager {
     /**
      * Save books list to JSON file
      */
+    @Override
     public boolean saveBooks(List<Book> books) {
-        String jsonBooks = gson.toJson(books);
-        return writeToFile(BOOKS_FILE, jsonBooks);
+        return save(BOOKS_FILE, books, Book.class);
     }
 
     /**
      * Save members list to JSON file
      */
+    @Override
     public boolean saveMembers(List<Member> members) {
-        String jsonMembers = gson.toJson(members);
-        return writeToFile(MEMBERS_FILE, jsonMembers);
+        return save(MEMBERS_FILE, members, Member.class);
     }
 
     /**
      * Save transactions list to JSON file
      */
+    @Override
     public boolean saveTransactions(List<Transaction> transactions) {
-        String jsonTransactions = gson.toJson(transactions);
-        return writeToFile(TRANSACTIONS_FILE, jsonTransactions);
+        return save(TRANSACTIONS_FILE, transactions, Transaction.class);
     }
 
     /**
      * Save users list to JSON file
      */
-    public boolean saveUsers(ArrayList<User> users) {
-        String jsonUsers = gson.toJson(users);
-        return writeToFile(USERS_FILE, jsonUsers);
+    @Override
+    public boolean saveUsers(List<User> users) {
+        return save(USERS_FILE, users, User.class);
+    }
+
+    /**
+     * Check if saved files are indented
+     */
+    public boolean isPrettyPrinting() {
+        return prettyPrinting;
+    }
+
+    /**
+     * Indent saved files (debug mode); off by default, or set -Dlms.prettyJson=true
+     */
+    public void setPrettyPrinting(boolean prettyPrinting) {
+        this.prettyPrinting = prettyPrinting;
+    }
+
+    /**
+     * Write a list now, or queue a snapshot of it when write-behind is on.
+     * The snapshot is encoded on the calling thread, while the caller still holds
+     * whatever lock guards the records, so the flusher never reads live objects.
+     */
+    private <T> boolean save(String filename, List<T> items, Class<T> type) {
+        if (isWriteBehind()) {
+            byte[] snapshot;
+            try {
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                encodeList(items, type, encoded);
+                snapshot = encoded.toByteArray();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error writing " + filename);
+                return false;
+            }
+            synchronized (pendingWrites) {
+                if (flusher != null && !shuttingDown) {
+                    pendingWrites.put(filename, () -> writeBytes(filename, snapshot));
+                    scheduleFlush();
+                    return true;
+                }
+            }
+            // Shut down in the meantime: write the snapshot now
+            synchronized (flushLock) {
+                return writeBytes(filename, snapshot);
+            }
+        }
+        synchronized (flushLock) {
+            return writeList(filename, items, type);
+        }
+    }
+
+    /**
+     * Get the size on disk of a collection's file, 0 if it does not exist yet
+     */
+    @Override
+    public long getStoredSize(DataSet set) {
+        return new File(fileFor(set)).length();
+    }
+
+    private static String fileFor(DataSet set) {
+        return switch (set) {
+            case MEMBERS -> MEMBERS_FILE;
+            case BOOKS -> BOOKS_FILE;
+            case TRANSACTIONS -> TRANSACTIONS_FILE;
+            case USERS -> USERS_FILE;
+        };
+    }
+
+    // ==================== WRITE-BEHIND ====================
+
+    /**
+     * Queue saves and write each file at most once per window on a background thread.
+     * Call flush() at durability boundaries; a shutdown hook flushes on exit.
+     */
+    public void enableWriteBehind(long windowMillis) {
+        synchronized (pendingWrites) {
+            flushWindowMillis = windowMillis;
+            if (flusher != null) {
+                return;
+            }
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "data-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "data-flusher-shutdown"));
+    }
+
+    /**
+     * Check if saves are queued for the background flusher
+     */
+    public boolean isWriteBehind() {
+        synchronized (pendingWrites) {
+            return flusher != null && !shuttingDown;
+        }
+    }
+
+    /**
+     * Write every queued save now
+     * @return true if nothing was pending or all writes succeeded
+     */
+    @Override
+    public boolean flush() {
+        synchronized (flushLock) {
+            LinkedHashMap<String, BooleanSupplier> batch;
+            synchronized (pendingWrites) {
+                batch = new LinkedHashMap<>(pendingWrites);
+                pendingWrites.clear();
+                flushScheduled = false;
+            }
+
+            boolean flushed = true;
+            for (Map.Entry<String, BooleanSupplier> write : batch.entrySet()) {
+                boolean written;
+                try {
+                    written = write.getValue().getAsBoolean();
+                } catch (RuntimeException e) {
+                    System.err.println("Error writing " + write.getKey() + ": " + e.getMessage());
+                    written = false;
+                }
+                if (!written) {
+                    flushed = false;
+                    // Retry with the next flush unless a newer snapshot is already queued
+                    synchronized (pendingWrites) {
+                        pendingWrites.putIfAbsent(write.getKey(), write.getValue());
+                        if (flusher != null && !shuttingDown) {
+                            scheduleFlush();
+                        }
+                    }
+                }
+            }
+            return flushed & forceTransactionStore();
+        }
+    }
+
+    /**
+     * Schedule a flush one window from now unless one is already due (caller holds pendingWrites)
+     */
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flush, flushWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Flush pending saves and write synchronously from now on
+     */
+    @Override
+    public void shutdown() {
+        if (readOnly) {
+            // Nothing was written; just release the store file
+            discardReadOnlyStore();
+            return;
+        }
+        ScheduledExecutorService stopping;
+        synchronized (pendingWrites) {
+            shuttingDown = true;
+            stopping = flusher;
+        }
+        flush();
+        if (stopping != null) {
+            stopping.shutdown();
+        }
     }
 
     // ==================== LOAD METHODS ====================
@@ -96,94 +341,768 @@ public class DataManager {
      * @return List of books, or empty list if file doesn't exist
      */
     public ArrayList<Book> loadBooks() throws FileNotFoundException {
-        if (!fileExists(BOOKS_FILE)) {
-            return new ArrayList<>();
+        ArrayList<Book> books = new ArrayList<>();
+        loadBooks(books::add);
+        return books;
+    }
+
+    /**
+     * Stream books from JSON file into sink, one record at a time
+     */
+    @Override
+    public void loadBooks(Consumer<Book> sink) {
+        readList(BOOKS_FILE, Book.class, sink);
+    }
+
+    /**
+     * Load members from JSON file
+     */
+    public ArrayList<Member> loadMembers() throws FileNotFoundException {
+        ArrayList<Member> members = new ArrayList<>();
+        loadMembers(members::add);
+        return members;
+    }
+
+    /**
+     * Stream members from JSON file into sink, one record at a time
+     */
+    @Override
+    public void loadMembers(Consumer<Member> sink) {
+        readList(MEMBERS_FILE, Member.class, sink);
+    }
+
+    /**
+     * Load transactions from the transaction store (or the JSON file without one)
+     */
+    public ArrayList<Transaction> loadTransactions() throws FileNotFoundException {
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        loadTransactions(transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Stream transactions into sink, one record at a time.
+     * They come from the transaction store, which is built from the JSON file on first use.
+     */
+    @Override
+    public void loadTransactions(Consumer<Transaction> sink) {
+        if (openTransactionStore()) {
+            transactionStore.forEach(sink);
+            return;
         }
+        readList(TRANSACTIONS_FILE, Transaction.class, sink);
+    }
 
-        String data = readFromFile(BOOKS_FILE);
-        if (data == null || data.isEmpty()) {
-            return new ArrayList<>();
+    /**
+     * Stream only the active transactions from the transaction store.
+     * Without a store every transaction is loaded, since transactions.json is rewritten from memory.
+     */
+    @Override
+    public void loadActiveTransactions(Consumer<Transaction> sink) {
+        if (openTransactionStore()) {
+            transactionStore.forEachActive(sink);
+            return;
         }
+        readList(TRANSACTIONS_FILE, Transaction.class, sink);
+    }
 
-        ArrayList<Book> books = gson.fromJson(data, new TypeToken<ArrayList<Book>>(){}.getType());
-        return books != null ? books : new ArrayList<>();
+    /**
+     * Load users from JSON file
+     */
+    public ArrayList<User> loadUsers() throws FileNotFoundException {
+        ArrayList<User> users = new ArrayList<>();
+        loadUsers(users::add);
+        return users;
     }
 
     /**
-     * Load members from JSON file
+     * Stream users from JSON file into sink, one record at a time
      */
-    public ArrayList<Member> loadMembers() throws FileNotFoundException {
-        if (!fileExists(MEMBERS_FILE)) {
+    @Override
+    public void loadUsers(Consumer<User> sink) {
+        readList(USERS_FILE, User.class, sink);
+    }
+
+    // ==================== JOURNAL METHODS ====================
+
+    /**
+     * Check if issue/return are written to the journal instead of rewriting all files
+     */
+    @Override
+    public boolean isJournalMode() {
+        return journalMode;
+    }
+
+    /**
+     * Enable or disable journal mode
+     */
+    public void setJournalMode(boolean journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    /**
+     * Number of records appended since the last checkpoint
+     */
+    @Override
+    public int getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Check if the journal holds records not yet folded into the JSON files
+     */
+    @Override
+    public boolean hasPendingJournal() {
+        return journalSize > 0;
+    }
+
+    /**
+     * Append one record to the journal and force it to disk
+     * @return true if the record is durable, false on I/O error
+     */
+    @Override
+    public boolean appendToJournal(JournalEntry entry) {
+        byte[] line = (gson.toJson(entry) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream out = new FileOutputStream(JOURNAL_FILE, true)) {
+            out.write(line);
+            out.getChannel().force(false);
+        } catch (IOException e) {
+            System.err.println("Error appending to " + JOURNAL_FILE);
+            return false;
+        }
+        journalSize++;
+        return true;
+    }
+
+    /**
+     * Load all journal records written since the last checkpoint.
+     * Reading stops at the first unreadable line (a record torn by a crash).
+     */
+    @Override
+    public ArrayList<JournalEntry> loadJournal() {
+        ArrayList<JournalEntry> entries = new ArrayList<>();
+        if (!fileExists(JOURNAL_FILE)) {
+            journalSize = 0;
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(JOURNAL_FILE), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JournalEntry entry;
+                try {
+                    entry = gson.fromJson(line, JournalEntry.class);
+                } catch (JsonParseException e) {
+                    System.err.println("Ignoring torn record at end of " + JOURNAL_FILE);
+                    break;
+                }
+                if (entry == null || entry.getTransaction() == null) {
+                    break;
+                }
+                entries.add(entry);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading " + JOURNAL_FILE);
+        }
+
+        journalSize = entries.size();
+        return entries;
+    }
+
+    /**
+     * Discard the journal after its records were written to the JSON files
+     */
+    @Override
+    public boolean clearJournal() {
+        try {
+            Files.deleteIfExists(Paths.get(JOURNAL_FILE));
+        } catch (IOException e) {
+            System.err.println("Error clearing " + JOURNAL_FILE);
+            return false;
+        }
+        journalSize = 0;
+        return true;
+    }
+
+    // ==================== TRANSACTION STORE ====================
+
+    /**
+     * Check if transactions are kept in the memory-mapped store
+     */
+    @Override
+    public boolean hasTransactionStore() {
+        return transactionStore != null;
+    }
+
+    /**
+     * Append a new transaction to the store; forced to disk at once when the journal is off
+     * @return false if there is no store or the write failed
+     */
+    @Override
+    public boolean appendTransaction(Transaction transaction) {
+        if (transactionStore == null) {
+            return false;
+        }
+        try {
+            transactionStore.append(transaction);
+            return journalMode || forceTransactionStore();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error appending to transaction store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rewrite a stored transaction's status after a return
+     * @return false if there is no store or the transaction is not in it
+     */
+    @Override
+    public boolean updateTransaction(Transaction transaction) {
+        if (transactionStore == null) {
+            return false;
+        }
+        try {
+            return transactionStore.updateStatus(transaction) && (journalMode || forceTransactionStore());
+        } catch (RuntimeException e) {
+            System.err.println("Error updating transaction store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stop using the store, after transactions.json has been written in its place.
+     * The file is removed so the next start imports transactions.json again.
+     */
+    @Override
+    public void discardTransactionStore() {
+        if (transactionStore == null) {
+            return;
+        }
+        try {
+            transactionStore.close();
+            Files.deleteIfExists(Paths.get(TRANSACTION_STORE_FILE));
+        } catch (IOException e) {
+            System.err.println("Error discarding transaction store: " + e.getMessage());
+        }
+        transactionStore = null;
+    }
+
+    /**
+     * Open the store, first building it from transactions.json if it does not exist.
+     * If the import fails, transactions.json is still current and is used instead.
+     * Once the store exists it holds the only current copy of the transactions,
+     * so failing to open it is fatal rather than a reason to load the stale JSON file.
+     * @throws UncheckedIOException if an existing store cannot be opened
+     */
+    private boolean openTransactionStore() {
+        if (transactionStore != null) {
+            return true;
+        }
+        Path store = Paths.get(TRANSACTION_STORE_FILE);
+        if (readOnly) {
+            return Files.exists(store) && openReadOnlyStore(store);
+        }
+        if (!Files.exists(store)) {
+            try {
+                importTransactions(store);
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error building transaction store, using JSON file: " + e.getMessage());
+                return false;
+            }
+        }
+        try {
+            transactionStore = TransactionStore.open(store);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction store " + store, e);
+        }
+    }
+
+    private boolean openReadOnlyStore(Path store) {
+        try {
+            transactionStore = TransactionStore.openReadOnly(store);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transaction store " + store, e);
+        }
+    }
+
+    private void discardReadOnlyStore() {
+        if (transactionStore == null) {
+            return;
+        }
+        try {
+            transactionStore.close();
+        } catch (IOException e) {
+            System.err.println("Error closing transaction store: " + e.getMessage());
+        }
+        transactionStore = null;
+    }
+
+    /**
+     * Copy transactions.json into a new store; built aside and renamed so a crash leaves no partial store
+     */
+    private void importTransactions(Path store) throws IOException {
+        Path temp = Paths.get(TRANSACTION_STORE_FILE + TEMP_SUFFIX);
+        Files.deleteIfExists(temp);
+        try (TransactionStore imported = TransactionStore.open(temp)) {
+            readList(TRANSACTIONS_FILE, Transaction.class, transaction -> {
+                try {
+                    imported.append(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        Files.move(temp, store, StandardCopyOption.ATOMIC_MOVE);
+        syncDataDirectory();
+    }
+
+    private boolean forceTransactionStore() {
+        if (transactionStore == null) {
+            return true;
+        }
+        try {
+            transactionStore.force();
+            return true;
+        } catch (UncheckedIOException e) {
+            System.err.println("Error forcing transaction store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rewrite the live store with only the given transactions (after archiving the rest)
+     * @return false if there is no store or the rewrite failed; the old store is kept then
+     * @throws UncheckedIOException if the compacted store cannot be opened after the swap
+     */
+    @Override
+    public boolean compactTransactions(List<Transaction> remaining) {
+        if (transactionStore == null) {
+            return false;
+        }
+        Path store = Paths.get(TRANSACTION_STORE_FILE);
+        Path temp = Paths.get(TRANSACTION_STORE_FILE + TEMP_SUFFIX);
+        try {
+            Files.deleteIfExists(temp);
+            try (TransactionStore compacted = TransactionStore.open(temp)) {
+                for (Transaction transaction : remaining) {
+                    compacted.append(transaction);
+                }
+            }
+            transactionStore.close();
+            transactionStore = null;
+            Files.move(temp, store, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDataDirectory();
+        } catch (IOException e) {
+            System.err.println("Error compacting transaction store: " + e.getMessage());
+            if (transactionStore != null) {
+                return false;
+            }
+        }
+        return openTransactionStore();
+    }
+
+    // ==================== ARCHIVE METHODS ====================
+
+    /**
+     * Move stored transactions accepted by archivable into the archive and compact the store to the rest.
+     * Works from the store itself, so transactions that were never loaded are included.
+     * @return the archived transactions, empty if there is no store or nothing was moved
+     */
+    @Override
+    public List<Transaction> archiveStoredTransactions(Predicate<Transaction> archivable) {
+        ArrayList<Transaction> closed = new ArrayList<>();
+        if (transactionStore == null) {
+            return closed;
+        }
+        ArrayList<Transaction> remaining = new ArrayList<>();
+        transactionStore.forEach(transaction -> (archivable.test(transaction) ? closed : remaining).add(transaction));
+        if (closed.isEmpty() || !archiveTransactions(closed)) {
             return new ArrayList<>();
         }
+        compactTransactions(remaining);
+        return closed;
+    }
 
-        String data = readFromFile(MEMBERS_FILE);
-        if (data == null || data.isEmpty()) {
+    /**
+     * Append closed transactions to the monthly archive segments
+     */
+    @Override
+    public boolean archiveTransactions(List<Transaction> closed) {
+        try {
+            archive.add(closed);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error archiving transactions: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get the months with archived transactions, oldest first
+     */
+    @Override
+    public List<YearMonth> getArchiveMonths() {
+        try {
+            return archive.months();
+        } catch (IOException e) {
+            System.err.println("Error listing archive: " + e.getMessage());
             return new ArrayList<>();
         }
+    }
 
-        ArrayList<Member> members = gson.fromJson(data, new TypeToken<ArrayList<Member>>(){}.getType());
-        return members != null ? members : new ArrayList<>();
+    /**
+     * Stream the archived transactions issued in one month
+     */
+    @Override
+    public void loadArchivedTransactions(YearMonth month, Consumer<Transaction> sink) {
+        try {
+            archive.forEach(month, sink);
+        } catch (IOException e) {
+            System.err.println("Error reading archive " + month + ": " + e.getMessage());
+        }
     }
 
     /**
-     * Load transactions from JSON file
+     * Iterate every archived transaction, oldest month first, one compressed block at a time
      */
-    public ArrayList<Transaction> loadTransactions() throws FileNotFoundException {
-            if (!fileExists(TRANSACTIONS_FILE)) {
-                return new ArrayList<>();
-            }
+    @Override
+    public Iterator<Transaction> archiveIterator() {
+        try {
+            return archive.iterator();
+        } catch (IOException e) {
+            System.err.println("Error listing archive: " + e.getMessage());
+            return Collections.emptyIterator();
+        }
+    }
+
+    /**
+     * Stream every archived transaction, oldest month first
+     */
+    public void loadArchivedTransactions(Consumer<Transaction> sink) {
+        for (YearMonth month : getArchiveMonths()) {
+            loadArchivedTransactions(month, sink);
+        }
+    }
+
+    /**
+     * Stream a member's archived transactions, optionally only for one ISBN
+     */
+    @Override
+    public void loadArchivedTransactions(String memberID, String isbn, Consumer<Transaction> sink) {
+        try {
+            archive.forEachMatching(memberID, isbn, sink);
+        } catch (IOException e) {
+            System.err.println("Error reading archive: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check if the archive holds a loan of isbn to memberID
+     */
+    @Override
+    public boolean hasArchivedLoan(String memberID, String isbn) {
+        try {
+            return archive.contains(memberID, isbn);
+        } catch (IOException e) {
+            System.err.println("Error reading archive: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== SNAPSHOT METHODS ====================
+
+    /**
+     * Check if the binary snapshot is read and written
+     */
+    @Override
+    public boolean isSnapshotMode() {
+        return snapshotMode;
+    }
+
+    /**
+     * Turn the binary snapshot on or off; the JSON files are always kept
+     */
+    public void setSnapshotMode(boolean snapshotMode) {
+        this.snapshotMode = snapshotMode;
+    }
 
-            String data = readFromFile(TRANSACTIONS_FILE); // Use helper method
-            if (data == null || data.isEmpty()) {
-                return new ArrayList<>();
+    /**
+     * Load the binary snapshot if it is newer than every JSON file
+     * @return the snapshot, or null if the JSON files should be loaded instead
+     */
+    @Override
+    public BinarySnapshot loadSnapshot() {
+        if (!snapshotMode || !fileExists(SNAPSHOT_FILE)) {
+            return null;
+        }
+        try {
+            if (!isSnapshotCurrent()) {
+                return null;
             }
+            return readSnapshot();
+        } catch (IOException e) {
+            System.err.println("Error loading snapshot, using JSON files: " + e.getMessage());
+            return null;
+        }
+    }
 
-            ArrayList<Transaction> transactions = gson.fromJson(data, new TypeToken<ArrayList<Transaction>>(){}.getType());
-            return transactions != null ? transactions : new ArrayList<>();
+    /**
+     * Read the binary snapshot regardless of its age
+     */
+    public BinarySnapshot readSnapshot() throws IOException {
+        return BinarySnapshot.read(Paths.get(SNAPSHOT_FILE));
     }
 
     /**
-     * Load users from JSON file
+     * Write the binary snapshot (crash-safe)
      */
-    public ArrayList<User> loadUsers() throws FileNotFoundException {
-            if (!fileExists(USERS_FILE)) {
-                return new ArrayList<>();
+    @Override
+    public boolean saveSnapshot(BinarySnapshot snapshot) {
+        try {
+            snapshot.write(Paths.get(SNAPSHOT_FILE));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A JSON file written after the snapshot holds changes the snapshot lacks
+     */
+    private boolean isSnapshotCurrent() throws IOException {
+        FileTime written = Files.getLastModifiedTime(Paths.get(SNAPSHOT_FILE));
+        for (DataSet set : DataSet.values()) {
+            Path json = Paths.get(fileFor(set));
+            if (Files.exists(json) && Files.getLastModifiedTime(json).compareTo(written) >= 0) {
+                return false;
             }
+        }
+        return true;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Stream a list to a JSON array file record by record through a buffered JsonWriter,
+     * without building the whole document in memory.
+     * The data goes to a temp file that is forced to disk and then renamed over the original.
+     */
+    private <T> boolean writeList(String filename, List<T> items, Class<T> type) {
+        Path temp = Paths.get(filename + TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            encodeList(items, type, new CheckedOutputStream(new BufferedOutputStream(out), crc));
+            out.getChannel().force(true);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing " + filename);
+            return false;
+        }
+
+        return commitFile(filename, crc.getValue());
+    }
+
+    /**
+     * Write an already encoded snapshot the same way writeList does
+     */
+    private boolean writeBytes(String filename, byte[] data) {
+        Path temp = Paths.get(filename + TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            out.write(data);
+            out.getChannel().force(true);
+        } catch (IOException e) {
+            System.err.println("Error writing " + filename);
+            return false;
+        }
+
+        return commitFile(filename, crc.getValue());
+    }
+
+    /**
+     * Encode a list as a JSON array onto out
+     */
+    private <T> void encodeList(List<T> items, Class<T> type, OutputStream out) throws IOException {
+        // Configured like Gson.toJson would (HTML-safe, nulls omitted); the adapter is looked up once
+        JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (prettyPrinting) {
+            writer.setIndent("  ");
+        }
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        writer.beginArray();
+        for (T item : items) {
+            adapter.write(writer, item);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    /**
+     * Make a fully written temp file the current generation of filename.
+     * The current generation becomes the backup, then the new checksum and the
+     * new data are renamed over the originals. A crash between the two renames
+     * leaves a checksum mismatch, and loading falls back to the backup.
+     */
+    private boolean commitFile(String filename, long checksum) {
+        Path target = Paths.get(filename);
+        Path temp = Paths.get(filename + TEMP_SUFFIX);
+        Path sum = Paths.get(filename + CHECKSUM_SUFFIX);
+        Path sumTemp = Paths.get(filename + CHECKSUM_SUFFIX + TEMP_SUFFIX);
 
-            String data = readFromFile(USERS_FILE); // Use helper method
-            if (data == null || data.isEmpty()) {
-                return new ArrayList<>();
+        try {
+            String record = Long.toHexString(checksum) + " " + Files.size(temp);
+            try (FileOutputStream out = new FileOutputStream(sumTemp.toFile())) {
+                out.write(record.getBytes(StandardCharsets.UTF_8));
+                out.getChannel().force(true);
             }
 
-            ArrayList<User> users = gson.fromJson(data, new TypeToken<ArrayList<User>>(){}.getType());
-            return users != null ? users : new ArrayList<>();
+            // Keep the current generation as the fallback
+            keepBackup(target, Paths.get(filename + BACKUP_SUFFIX));
+            keepBackup(sum, Paths.get(filename + BACKUP_SUFFIX + CHECKSUM_SUFFIX));
+
+            Files.move(sumTemp, sum, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDataDirectory();
+        } catch (IOException e) {
+            System.err.println("Error committing " + filename);
+            return false;
+        }
+        return true;
     }
 
-    // ==================== HELPER METHODS ====================
+    /**
+     * Point backup at the current file (hard link, or a copy where links are unsupported)
+     */
+    private void keepBackup(Path current, Path backup) throws IOException {
+        Files.deleteIfExists(backup);
+        if (!Files.exists(current)) {
+            return;
+        }
+        try {
+            Files.createLink(backup, current);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(current, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Force the renames themselves to disk where the platform allows it
+     */
+    private void syncDataDirectory() {
+        try (FileChannel dir = FileChannel.open(Paths.get(DATA_DIR), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the data files themselves are already forced
+        }
+    }
+
+    /**
+     * Stream a JSON array file element by element through a buffered JsonReader.
+     * The checksum is computed while the file is parsed, so each file is read once.
+     * If the current generation does not match its checksum, its records are dropped
+     * and the backup is loaded instead; if neither matches, the current file is used
+     * as it is. Files written before checksums existed are accepted as they are.
+     * Missing or empty files yield no elements.
+     */
+    private <T> void readList(String filename, Class<T> type, Consumer<T> sink) {
+        List<T> items = readGeneration(filename, type);
+        if (items == null) {
+            items = readGeneration(filename + BACKUP_SUFFIX, type);
+            if (items != null) {
+                System.err.println("Recovered " + filename + " from previous generation");
+            } else {
+                items = new ArrayList<>();
+                if (fileExists(filename)) {
+                    parseList(filename, type, null, items);
+                }
+            }
+        }
+        items.forEach(sink);
+    }
 
     /**
-     * Write string content to a file
+     * Read one generation of a file, checking it against its checksum record on the way
+     * @return the records, or null if the file is missing or does not match its record
      */
-    private boolean writeToFile(String filename, String content) {
-         try (FileWriter writer = new FileWriter(filename)) {
-             writer.write(content);
-         } catch (IOException e) {
-             return false;
-         }
-         return true;
+    private <T> List<T> readGeneration(String filename, Class<T> type) {
+        File file = new File(filename);
+        if (!file.exists()) {
+            return null;
+        }
+
+        List<T> items = new ArrayList<>();
+        Path sum = Paths.get(filename + CHECKSUM_SUFFIX);
+        if (!Files.exists(sum)) {
+            // Written before checksums existed, nothing to verify against
+            parseList(filename, type, null, items);
+            return items;
+        }
+
+        try {
+            String[] record = Files.readString(sum, StandardCharsets.UTF_8).trim().split(" ");
+            long expectedCrc = Long.parseLong(record[0], 16);
+            long expectedLength = Long.parseLong(record[1]);
+            // A torn file is caught by its length without parsing it
+            if (file.length() != expectedLength) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            if (!parseList(filename, type, crc, items) || crc.getValue() != expectedCrc) {
+                return null;
+            }
+            return items;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
     }
 
     /**
-     * Read entire file content as string
+     * Parse a JSON array file into items, running every byte of it through crc if one is given
+     * @return false if the file could not be read or parsed to the end
      */
-    private String readFromFile(String filename) {
-         try {
-             return Files.readString(Paths.get(filename));
-         } catch (IOException e) {
-             System.err.println("Error reading " + filename);
-             return null;
-         }
+    private <T> boolean parseList(String filename, Class<T> type, CRC32 crc, List<T> items) {
+        if (new File(filename).length() == 0) {
+            return true;
+        }
+
+        try (InputStream file = new BufferedInputStream(new FileInputStream(filename))) {
+            Reader text = new InputStreamReader(crc != null ? new CheckedInputStream(file, crc) : file,
+                    StandardCharsets.UTF_8);
+            JsonReader reader = new JsonReader(text);
+            // As lenient as Gson.fromJson; the adapter is looked up once instead of per element
+            reader.setStrictness(Strictness.LENIENT);
+            TypeAdapter<T> adapter = gson.getAdapter(type);
+            JsonToken first = reader.peek();
+            if (first != JsonToken.END_DOCUMENT && first != JsonToken.NULL) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    T item = adapter.read(reader);
+                    if (item != null) {
+                        items.add(item);
+                    }
+                }
+                reader.endArray();
+            }
+
+            // Whatever follows the array still has to go through the checksum
+            char[] rest = new char[8192];
+            while (text.read(rest) != -1) {
+                // discard
+            }
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            System.err.println("Error reading " + filename);
+            return false;
+        }
     }
 
     /**
@@ -200,21 +1119,4 @@ public class DataManager {
     public boolean isFirstRun() {
         return !fileExists(USERS_FILE);
     }
-    private static class LocalDateAdapter implements JsonSerializer<LocalDate>, JsonDeserializer<LocalDate> {
-        private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
-
-        @Override
-        public JsonElement serialize(LocalDate date, java.lang.reflect.Type typeOfSrc,
-                                     com.google.gson.JsonSerializationContext context) {
-            return new JsonPrimitive(date.format(formatter)); // "yyyy-MM-dd"
-        }
-
-        @Override
-        public LocalDate deserialize(JsonElement json, java.lang.reflect.Type typeOfT,
-                                     com.google.gson.JsonDeserializationContext context)
-                throws JsonParseException {
-            return LocalDate.parse(json.getAsString(), formatter);
-        }
-    }
 }
-
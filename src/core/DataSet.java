@@ -0,0 +1,11 @@
+package core;
+
+/**
+ * The collections persisted by DataManager, one file each
+ */
+public enum DataSet {
+    MEMBERS,
+    BOOKS,
+    TRANSACTIONS,
+    USERS
+}
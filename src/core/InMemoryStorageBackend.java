@@ -0,0 +1,188 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage that keeps the collections in memory only, for profiling and load
+ * testing LibrarySystem without serialization or file I/O.
+ *
+ * Records are copied on the way in and out, so a second LibrarySystem on the
+ * same backend sees what the first one saved, as after a restart, and never
+ * shares objects with it. Issues, returns and edits are stored as single
+ * records. Nothing survives the process.
+ */
+public class InMemoryStorageBackend implements StorageBackend {
+
+    // Fields, keyed by ID in stored order
+    private final LinkedHashMap<String, Book> books = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Member> members = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Transaction> transactions = new LinkedHashMap<>();
+    private final LinkedHashMap<String, User> users = new LinkedHashMap<>();
+
+    // Constructors
+    public InMemoryStorageBackend() {
+    }
+
+    /**
+     * Start with the given records, e.g. a generated catalogue for a load test
+     */
+    public InMemoryStorageBackend(List<Book> books, List<Member> members,
+                                  List<Transaction> transactions, List<User> users) {
+        saveBooks(books);
+        saveMembers(members);
+        saveTransactions(transactions);
+        saveUsers(users);
+    }
+
+    // ==================== LOAD METHODS ====================
+
+    @Override
+    public synchronized void loadBooks(Consumer<Book> sink) {
+        for (Book book : new ArrayList<>(books.values())) {
+            sink.accept(copy(book));
+        }
+    }
+
+    @Override
+    public synchronized void loadMembers(Consumer<Member> sink) {
+        for (Member member : new ArrayList<>(members.values())) {
+            sink.accept(copy(member));
+        }
+    }
+
+    @Override
+    public synchronized void loadTransactions(Consumer<Transaction> sink) {
+        for (Transaction transaction : new ArrayList<>(transactions.values())) {
+            sink.accept(copy(transaction));
+        }
+    }
+
+    @Override
+    public synchronized void loadUsers(Consumer<User> sink) {
+        for (User user : new ArrayList<>(users.values())) {
+            sink.accept(copy(user));
+        }
+    }
+
+    // ==================== SAVE METHODS ====================
+
+    @Override
+    public synchronized boolean saveBooks(List<Book> books) {
+        this.books.clear();
+        for (Book book : books) {
+            this.books.putIfAbsent(book.getIsbn(), copy(book));
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveMembers(List<Member> members) {
+        this.members.clear();
+        for (Member member : members) {
+            this.members.putIfAbsent(member.getMemberID(), copy(member));
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveTransactions(List<Transaction> transactions) {
+        this.transactions.clear();
+        for (Transaction transaction : transactions) {
+            this.transactions.putIfAbsent(transaction.getTransactionID(), copy(transaction));
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveUsers(List<User> users) {
+        this.users.clear();
+        for (User user : users) {
+            this.users.putIfAbsent(user.getUsername(), copy(user));
+        }
+        return true;
+    }
+
+    // ==================== ROW UPDATES ====================
+
+    @Override
+    public boolean supportsRowUpdates() {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveBook(Book book) {
+        books.put(book.getIsbn(), copy(book));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteBook(String isbn) {
+        books.remove(isbn);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveMember(Member member) {
+        members.put(member.getMemberID(), copy(member));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteMember(String memberID) {
+        members.remove(memberID);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveUser(User user) {
+        users.put(user.getUsername(), copy(user));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveLoan(Transaction transaction, Book book, Member member) {
+        transactions.put(transaction.getTransactionID(), copy(transaction));
+        if (book != null) {
+            books.put(book.getIsbn(), copy(book));
+        }
+        if (member != null) {
+            members.put(member.getMemberID(), copy(member));
+        }
+        return true;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static Book copy(Book book) {
+        return new Book(book.getIsbn(), book.getTitle(), book.getAuthor(),
+                book.getTotalCopies(), book.getAvailableCopies(), book.getTimesBorrowed());
+    }
+
+    private static Member copy(Member member) {
+        Member copy = new Member(member.getMemberID(), member.getName(), member.getEmail());
+        copy.setBorrowedBooks(member.getBorrowedBooks());
+        return copy;
+    }
+
+    private static Transaction copy(Transaction transaction) {
+        Transaction copy = new Transaction();
+        copy.setTransactionID(transaction.getTransactionID());
+        copy.setMemberID(transaction.getMemberID());
+        copy.setMemberName(transaction.getMemberName());
+        copy.setIsbn(transaction.getIsbn());
+        copy.setBookTitle(transaction.getBookTitle());
+        copy.setIssueDate(transaction.getIssueDate());
+        copy.setDueDate(transaction.getDueDate());
+        copy.setReturnDate(transaction.getReturnDate());
+        copy.setFine(transaction.getFine());
+        copy.setActive(transaction.isActive());
+        return copy;
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUsername(), user.getPassword(), user.getRole());
+    }
+}
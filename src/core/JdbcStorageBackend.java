@@ -0,0 +1,772 @@
+package core;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage in an SQL database reached through JDBC, typically an embedded
+ * file-based one such as H2 or SQLite (the driver jar goes on the classpath).
+ * Select it with -Dlms.jdbcUrl=... (and -Dlms.jdbcUser / -Dlms.jdbcPassword).
+ *
+ * Each record is a row keyed by its ID, so an issue or return writes one
+ * transaction row, one book row and one member row in a single SQL transaction,
+ * and an edit writes only the edited row. A seq column keeps the stored order.
+ * Archived transactions stay in their table with the archived flag set, and
+ * history queries on them use the member, ISBN and issue-date indexes.
+ * Dates are stored as epoch-day integers, as in the binary snapshot.
+ */
+public class JdbcStorageBackend implements StorageBackend {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private static final String BOOK_COLUMNS = "isbn, title, author, total_copies, available_copies, times_borrowed";
+    private static final String MEMBER_COLUMNS = "member_id, name, email";
+    private static final String TRANSACTION_COLUMNS = "transaction_id, member_id, member_name, isbn, book_title, "
+            + "issue_day, due_day, return_day, fine, active";
+    private static final String USER_COLUMNS = "username, password, role";
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE lms_books (seq BIGINT NOT NULL, isbn VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "title VARCHAR(1024), author VARCHAR(1024), total_copies INTEGER NOT NULL, "
+                    + "available_copies INTEGER NOT NULL, times_borrowed INTEGER NOT NULL)",
+            "CREATE TABLE lms_members (seq BIGINT NOT NULL, member_id VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "name VARCHAR(1024), email VARCHAR(1024))",
+            "CREATE TABLE lms_borrowed (member_id VARCHAR(255) NOT NULL, slot INTEGER NOT NULL, "
+                    + "isbn VARCHAR(255), PRIMARY KEY (member_id, slot))",
+            "CREATE TABLE lms_transactions (seq BIGINT NOT NULL, transaction_id VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "member_id VARCHAR(255), member_name VARCHAR(1024), isbn VARCHAR(255), book_title VARCHAR(1024), "
+                    + "issue_day INTEGER, due_day INTEGER, return_day INTEGER, fine DOUBLE PRECISION NOT NULL, "
+                    + "active SMALLINT NOT NULL, archived SMALLINT NOT NULL)",
+            "CREATE INDEX lms_transactions_member ON lms_transactions (member_id, isbn)",
+            "CREATE INDEX lms_transactions_live ON lms_transactions (archived, active)",
+            "CREATE INDEX lms_transactions_issued ON lms_transactions (issue_day)",
+            "CREATE TABLE lms_users (seq BIGINT NOT NULL, username VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "password VARCHAR(1024), role VARCHAR(64))"
+    };
+
+    // Fields
+    private final Connection connection;
+    private final EnumMap<DataSet, Long> nextSeq = new EnumMap<>(DataSet.class);
+
+    // Constructor
+    public JdbcStorageBackend(String url, String user, String password) throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try {
+            createSchema();
+            for (DataSet set : DataSet.values()) {
+                nextSeq.put(set, maxSeq(set) + 1);
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    // ==================== LOAD METHODS ====================
+
+    @Override
+    public synchronized void loadBooks(Consumer<Book> sink) {
+        query("SELECT " + BOOK_COLUMNS + " FROM lms_books ORDER BY seq", null,
+                rows -> sink.accept(readBook(rows)));
+    }
+
+    @Override
+    public synchronized void loadMembers(Consumer<Member> sink) {
+        LinkedHashMap<String, Member> members = new LinkedHashMap<>();
+        boolean loaded = query("SELECT " + MEMBER_COLUMNS + " FROM lms_members ORDER BY seq", null, rows -> {
+            Member member = new Member(rows.getString(1), rows.getString(2), rows.getString(3));
+            members.put(member.getMemberID(), member);
+        });
+        loaded &= query("SELECT member_id, isbn FROM lms_borrowed ORDER BY member_id, slot", null, rows -> {
+            Member member = members.get(rows.getString(1));
+            if (member != null) {
+                member.getBorrowedBooks().add(rows.getString(2));
+            }
+        });
+        if (loaded) {
+            members.values().forEach(sink);
+        }
+    }
+
+    @Override
+    public synchronized void loadTransactions(Consumer<Transaction> sink) {
+        query("SELECT " + TRANSACTION_COLUMNS + " FROM lms_transactions WHERE archived = 0 ORDER BY seq", null,
+                rows -> sink.accept(readTransaction(rows)));
+    }
+
+    @Override
+    public synchronized void loadActiveTransactions(Consumer<Transaction> sink) {
+        query("SELECT " + TRANSACTION_COLUMNS + " FROM lms_transactions WHERE archived = 0 AND active = 1 ORDER BY seq",
+                null, rows -> sink.accept(readTransaction(rows)));
+    }
+
+    @Override
+    public synchronized void loadUsers(Consumer<User> sink) {
+        query("SELECT " + USER_COLUMNS + " FROM lms_users ORDER BY seq", null,
+                rows -> sink.accept(new User(rows.getString(1), rows.getString(2), rows.getString(3))));
+    }
+
+    // ==================== SAVE METHODS ====================
+
+    @Override
+    public synchronized boolean saveBooks(List<Book> books) {
+        return inTransaction("saving books", () -> replaceBooks(books));
+    }
+
+    @Override
+    public synchronized boolean saveMembers(List<Member> members) {
+        return inTransaction("saving members", () -> replaceMembers(members));
+    }
+
+    @Override
+    public synchronized boolean saveTransactions(List<Transaction> transactions) {
+        return inTransaction("saving transactions", () -> replaceTransactions(transactions));
+    }
+
+    @Override
+    public synchronized boolean saveUsers(List<User> users) {
+        return inTransaction("saving users", () -> replaceUsers(users));
+    }
+
+    /**
+     * Close the database connection; every write is already committed
+     */
+    @Override
+    public synchronized void shutdown() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing database: " + e.getMessage());
+        }
+    }
+
+    // ==================== IMPORT ====================
+
+    /**
+     * Check if no book, member, transaction or user is stored yet
+     */
+    public synchronized boolean isEmpty() {
+        for (DataSet set : DataSet.values()) {
+            if (nextSeq.get(set) > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy everything another backend holds, archived transactions included, as one SQL transaction
+     */
+    public synchronized boolean importFrom(StorageBackend source) {
+        ArrayList<Book> books = new ArrayList<>();
+        ArrayList<Member> members = new ArrayList<>();
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        ArrayList<User> users = new ArrayList<>();
+        source.loadBooks(books::add);
+        source.loadMembers(members::add);
+        source.loadTransactions(transactions::add);
+        source.loadUsers(users::add);
+
+        return inTransaction("importing data", () -> {
+            replaceBooks(books);
+            replaceMembers(members);
+            replaceUsers(users);
+            try (PreparedStatement archive = connection.prepareStatement(
+                    "UPDATE lms_transactions SET archived = 1 WHERE transaction_id = ?")) {
+                Iterator<Transaction> archived = source.archiveIterator();
+                while (archived.hasNext()) {
+                    Transaction transaction = archived.next();
+                    upsertTransaction(transaction);
+                    archive.setString(1, transaction.getTransactionID());
+                    archive.executeUpdate();
+                }
+            }
+            // Live transactions last, so one left in both places ends up live
+            replaceTransactions(transactions);
+        });
+    }
+
+    // ==================== ROW UPDATES ====================
+
+    @Override
+    public boolean supportsRowUpdates() {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean saveBook(Book book) {
+        return inTransaction("saving book " + book.getIsbn(), () -> upsertBook(book));
+    }
+
+    @Override
+    public synchronized boolean deleteBook(String isbn) {
+        return inTransaction("deleting book " + isbn,
+                () -> update("DELETE FROM lms_books WHERE isbn = ?", statement -> statement.setString(1, isbn)));
+    }
+
+    @Override
+    public synchronized boolean saveMember(Member member) {
+        return inTransaction("saving member " + member.getMemberID(), () -> upsertMember(member));
+    }
+
+    @Override
+    public synchronized boolean deleteMember(String memberID) {
+        return inTransaction("deleting member " + memberID, () -> {
+            update("DELETE FROM lms_borrowed WHERE member_id = ?", statement -> statement.setString(1, memberID));
+            update("DELETE FROM lms_members WHERE member_id = ?", statement -> statement.setString(1, memberID));
+        });
+    }
+
+    @Override
+    public synchronized boolean saveUser(User user) {
+        return inTransaction("saving user " + user.getUsername(), () -> {
+            int updated = update("UPDATE lms_users SET password = ?, role = ? WHERE username = ?", statement -> {
+                statement.setString(1, user.getPassword());
+                statement.setString(2, user.getRole());
+                statement.setString(3, user.getUsername());
+            });
+            if (updated == 0) {
+                update("INSERT INTO lms_users (seq, " + USER_COLUMNS + ") VALUES (?, ?, ?, ?)", statement -> {
+                    statement.setLong(1, takeSeq(DataSet.USERS));
+                    bindUser(statement, 2, user);
+                });
+            }
+        });
+    }
+
+    @Override
+    public synchronized boolean saveLoan(Transaction transaction, Book book, Member member) {
+        return inTransaction("saving transaction " + transaction.getTransactionID(), () -> {
+            upsertTransaction(transaction);
+            if (book != null) {
+                upsertBook(book);
+            }
+            if (member != null) {
+                upsertMember(member);
+            }
+        });
+    }
+
+    // ==================== TRANSACTION STORE ====================
+
+    @Override
+    public boolean hasTransactionStore() {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean appendTransaction(Transaction transaction) {
+        return inTransaction("saving transaction " + transaction.getTransactionID(), () -> upsertTransaction(transaction));
+    }
+
+    @Override
+    public synchronized boolean updateTransaction(Transaction transaction) {
+        return inTransaction("updating transaction " + transaction.getTransactionID(), () -> {
+            if (updateTransactionRow(transaction) == 0) {
+                throw new SQLException("Transaction not stored");
+            }
+        });
+    }
+
+    /**
+     * Delete the live transactions not in remaining; archived ones are flagged and kept
+     */
+    @Override
+    public synchronized boolean compactTransactions(List<Transaction> remaining) {
+        HashSet<String> keep = new HashSet<>();
+        for (Transaction transaction : remaining) {
+            keep.add(transaction.getTransactionID());
+        }
+        ArrayList<String> dropped = new ArrayList<>();
+        if (!query("SELECT transaction_id FROM lms_transactions WHERE archived = 0", null, rows -> {
+            if (!keep.contains(rows.getString(1))) {
+                dropped.add(rows.getString(1));
+            }
+        })) {
+            return false;
+        }
+        return inTransaction("compacting transactions", () -> {
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM lms_transactions WHERE transaction_id = ? AND archived = 0")) {
+                for (String transactionID : dropped) {
+                    delete.setString(1, transactionID);
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            }
+        });
+    }
+
+    // ==================== ARCHIVE ====================
+
+    @Override
+    public synchronized List<Transaction> archiveStoredTransactions(Predicate<Transaction> archivable) {
+        ArrayList<Transaction> closed = new ArrayList<>();
+        if (!query("SELECT " + TRANSACTION_COLUMNS + " FROM lms_transactions WHERE archived = 0 AND active = 0 ORDER BY seq",
+                null, rows -> {
+                    Transaction transaction = readTransaction(rows);
+                    if (archivable.test(transaction)) {
+                        closed.add(transaction);
+                    }
+                })) {
+            return new ArrayList<>();
+        }
+        if (closed.isEmpty() || !archiveTransactions(closed)) {
+            return new ArrayList<>();
+        }
+        return closed;
+    }
+
+    /**
+     * Flag the transactions as archived; their rows stay in place
+     */
+    @Override
+    public synchronized boolean archiveTransactions(List<Transaction> closed) {
+        return inTransaction("archiving transactions", () -> {
+            try (PreparedStatement archive = connection.prepareStatement(
+                    "UPDATE lms_transactions SET archived = 1 WHERE transaction_id = ?")) {
+                for (Transaction transaction : closed) {
+                    archive.setString(1, transaction.getTransactionID());
+                    archive.addBatch();
+                }
+                archive.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public synchronized List<YearMonth> getArchiveMonths() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        query("SELECT DISTINCT issue_day FROM lms_transactions WHERE archived = 1 AND issue_day IS NOT NULL", null,
+                rows -> months.add(YearMonth.from(LocalDate.ofEpochDay(rows.getInt(1)))));
+        return new ArrayList<>(months);
+    }
+
+    @Override
+    public synchronized void loadArchivedTransactions(YearMonth month, Consumer<Transaction> sink) {
+        query("SELECT " + TRANSACTION_COLUMNS + " FROM lms_transactions "
+                        + "WHERE archived = 1 AND issue_day BETWEEN ? AND ? ORDER BY seq",
+                statement -> {
+                    statement.setInt(1, Math.toIntExact(month.atDay(1).toEpochDay()));
+                    statement.setInt(2, Math.toIntExact(month.atEndOfMonth().toEpochDay()));
+                },
+                rows -> sink.accept(readTransaction(rows)));
+    }
+
+    @Override
+    public synchronized void loadArchivedTransactions(String memberID, String isbn, Consumer<Transaction> sink) {
+        query("SELECT " + TRANSACTION_COLUMNS + " FROM lms_transactions WHERE archived = 1 AND member_id = ?"
+                        + (isbn != null ? " AND isbn = ?" : "") + " ORDER BY seq",
+                statement -> {
+                    statement.setString(1, memberID);
+                    if (isbn != null) {
+                        statement.setString(2, isbn);
+                    }
+                },
+                rows -> sink.accept(readTransaction(rows)));
+    }
+
+    @Override
+    public synchronized boolean hasArchivedLoan(String memberID, String isbn) {
+        boolean[] found = new boolean[1];
+        query("SELECT 1 FROM lms_transactions WHERE archived = 1 AND member_id = ? AND isbn = ?",
+                statement -> {
+                    statement.setMaxRows(1);
+                    statement.setString(1, memberID);
+                    statement.setString(2, isbn);
+                },
+                rows -> found[0] = true);
+        return found[0];
+    }
+
+    /**
+     * Iterate archived transactions in stored order, reading PAGE_SIZE rows at a time
+     */
+    @Override
+    public Iterator<Transaction> archiveIterator() {
+        return new Iterator<>() {
+            private final ArrayList<Transaction> page = new ArrayList<>();
+            private int index;
+            private long lastSeq = Long.MIN_VALUE;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page.clear();
+                index = 0;
+                long[] seq = {lastSeq};
+                synchronized (JdbcStorageBackend.this) {
+                    query("SELECT seq, " + TRANSACTION_COLUMNS + " FROM lms_transactions "
+                                    + "WHERE archived = 1 AND seq > ? ORDER BY seq",
+                            statement -> {
+                                statement.setMaxRows(PAGE_SIZE);
+                                statement.setLong(1, lastSeq);
+                            },
+                            rows -> {
+                                seq[0] = rows.getLong(1);
+                                page.add(readTransaction(rows, 2));
+                            });
+                }
+                lastSeq = seq[0];
+                exhausted = page.size() < PAGE_SIZE;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+    }
+
+    // ==================== ROW WRITES ====================
+
+    private void replaceBooks(List<Book> books) throws SQLException {
+        execute("DELETE FROM lms_books");
+        nextSeq.put(DataSet.BOOKS, 1L);
+        HashSet<String> seen = new HashSet<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO lms_books (seq, " + BOOK_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (Book book : books) {
+                // The first record wins on duplicate keys, as when loading
+                if (book.getIsbn() != null && seen.add(book.getIsbn())) {
+                    insert.setLong(1, takeSeq(DataSet.BOOKS));
+                    bindBook(insert, 2, book);
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void replaceMembers(List<Member> members) throws SQLException {
+        execute("DELETE FROM lms_borrowed");
+        execute("DELETE FROM lms_members");
+        nextSeq.put(DataSet.MEMBERS, 1L);
+        HashSet<String> seen = new HashSet<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO lms_members (seq, " + MEMBER_COLUMNS + ") VALUES (?, ?, ?, ?)")) {
+            for (Member member : members) {
+                if (member.getMemberID() != null && seen.add(member.getMemberID())) {
+                    insert.setLong(1, takeSeq(DataSet.MEMBERS));
+                    bindMember(insert, 2, member);
+                    insert.addBatch();
+                    insertBorrowed(member);
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void replaceTransactions(List<Transaction> transactions) throws SQLException {
+        execute("DELETE FROM lms_transactions WHERE archived = 0");
+        HashSet<String> seen = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getTransactionID() != null && seen.add(transaction.getTransactionID())) {
+                // A transaction still in the archive (a crash while archiving) moves back to the live rows
+                upsertTransaction(transaction);
+            }
+        }
+    }
+
+    private void replaceUsers(List<User> users) throws SQLException {
+        execute("DELETE FROM lms_users");
+        nextSeq.put(DataSet.USERS, 1L);
+        HashSet<String> seen = new HashSet<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO lms_users (seq, " + USER_COLUMNS + ") VALUES (?, ?, ?, ?)")) {
+            for (User user : users) {
+                if (user.getUsername() != null && seen.add(user.getUsername())) {
+                    insert.setLong(1, takeSeq(DataSet.USERS));
+                    bindUser(insert, 2, user);
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void upsertBook(Book book) throws SQLException {
+        int updated = update("UPDATE lms_books SET title = ?, author = ?, total_copies = ?, available_copies = ?, "
+                + "times_borrowed = ? WHERE isbn = ?", statement -> {
+            statement.setString(1, book.getTitle());
+            statement.setString(2, book.getAuthor());
+            statement.setInt(3, book.getTotalCopies());
+            statement.setInt(4, book.getAvailableCopies());
+            statement.setInt(5, book.getTimesBorrowed());
+            statement.setString(6, book.getIsbn());
+        });
+        if (updated == 0) {
+            update("INSERT INTO lms_books (seq, " + BOOK_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)", statement -> {
+                statement.setLong(1, takeSeq(DataSet.BOOKS));
+                bindBook(statement, 2, book);
+            });
+        }
+    }
+
+    private void upsertMember(Member member) throws SQLException {
+        int updated = update("UPDATE lms_members SET name = ?, email = ? WHERE member_id = ?", statement -> {
+            statement.setString(1, member.getName());
+            statement.setString(2, member.getEmail());
+            statement.setString(3, member.getMemberID());
+        });
+        if (updated == 0) {
+            update("INSERT INTO lms_members (seq, " + MEMBER_COLUMNS + ") VALUES (?, ?, ?, ?)", statement -> {
+                statement.setLong(1, takeSeq(DataSet.MEMBERS));
+                bindMember(statement, 2, member);
+            });
+        }
+        update("DELETE FROM lms_borrowed WHERE member_id = ?", statement -> statement.setString(1, member.getMemberID()));
+        insertBorrowed(member);
+    }
+
+    private void insertBorrowed(Member member) throws SQLException {
+        List<String> borrowed = member.getBorrowedBooks();
+        if (borrowed.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO lms_borrowed (member_id, slot, isbn) VALUES (?, ?, ?)")) {
+            for (int slot = 0; slot < borrowed.size(); slot++) {
+                insert.setString(1, member.getMemberID());
+                insert.setInt(2, slot);
+                insert.setString(3, borrowed.get(slot));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void upsertTransaction(Transaction transaction) throws SQLException {
+        if (updateTransactionRow(transaction) == 0) {
+            update("INSERT INTO lms_transactions (seq, " + TRANSACTION_COLUMNS + ", archived) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", statement -> {
+                statement.setLong(1, takeSeq(DataSet.TRANSACTIONS));
+                bindTransaction(statement, 2, transaction);
+            });
+        }
+    }
+
+    /**
+     * Rewrite a stored transaction (and bring it back from the archive if it was there)
+     */
+    private int updateTransactionRow(Transaction transaction) throws SQLException {
+        return update("UPDATE lms_transactions SET transaction_id = ?, member_id = ?, member_name = ?, isbn = ?, "
+                + "book_title = ?, issue_day = ?, due_day = ?, return_day = ?, fine = ?, active = ?, archived = 0 "
+                + "WHERE transaction_id = ?", statement -> {
+            bindTransaction(statement, 1, transaction);
+            statement.setString(11, transaction.getTransactionID());
+        });
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void createSchema() throws SQLException {
+        Set<String> tables = new HashSet<>();
+        try (ResultSet rows = connection.getMetaData().getTables(null, null, "%", new String[]{"TABLE"})) {
+            while (rows.next()) {
+                tables.add(rows.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        if (tables.contains("lms_books")) {
+            return;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (String statement : SCHEMA) {
+                execute(statement);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long maxSeq(DataSet set) throws SQLException {
+        String table = switch (set) {
+            case MEMBERS -> "lms_members";
+            case BOOKS -> "lms_books";
+            case TRANSACTIONS -> "lms_transactions";
+            case USERS -> "lms_users";
+        };
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT MAX(seq) FROM " + table)) {
+            return rows.next() ? rows.getLong(1) : 0;
+        }
+    }
+
+    private long takeSeq(DataSet set) {
+        long seq = nextSeq.get(set);
+        nextSeq.put(set, seq + 1);
+        return seq;
+    }
+
+    /**
+     * Run writes as one SQL transaction, rolled back (with the seq counters) on failure
+     * @return false if the writes failed
+     */
+    private boolean inTransaction(String action, SqlAction writes) {
+        EnumMap<DataSet, Long> seqBefore = new EnumMap<>(nextSeq);
+        try {
+            connection.setAutoCommit(false);
+            try {
+                writes.run();
+                connection.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                nextSeq.putAll(seqBefore);
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error " + action + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Run a query and pass each row to handler
+     * @return false if the query failed
+     */
+    private boolean query(String sql, SqlBinder binder, SqlRowHandler handler) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (binder != null) {
+                binder.bind(statement);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    handler.handle(rows);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error reading database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private int update(String sql, SqlBinder binder) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            return statement.executeUpdate();
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void bindBook(PreparedStatement statement, int index, Book book) throws SQLException {
+        statement.setString(index, book.getIsbn());
+        statement.setString(index + 1, book.getTitle());
+        statement.setString(index + 2, book.getAuthor());
+        statement.setInt(index + 3, book.getTotalCopies());
+        statement.setInt(index + 4, book.getAvailableCopies());
+        statement.setInt(index + 5, book.getTimesBorrowed());
+    }
+
+    private static void bindMember(PreparedStatement statement, int index, Member member) throws SQLException {
+        statement.setString(index, member.getMemberID());
+        statement.setString(index + 1, member.getName());
+        statement.setString(index + 2, member.getEmail());
+    }
+
+    private static void bindTransaction(PreparedStatement statement, int index, Transaction transaction)
+            throws SQLException {
+        statement.setString(index, transaction.getTransactionID());
+        statement.setString(index + 1, transaction.getMemberID());
+        statement.setString(index + 2, transaction.getMemberName());
+        statement.setString(index + 3, transaction.getIsbn());
+        statement.setString(index + 4, transaction.getBookTitle());
+        bindDate(statement, index + 5, transaction.getIssueDate());
+        bindDate(statement, index + 6, transaction.getDueDate());
+        bindDate(statement, index + 7, transaction.getReturnDate());
+        statement.setDouble(index + 8, transaction.getFine());
+        statement.setInt(index + 9, transaction.isActive() ? 1 : 0);
+    }
+
+    private static void bindUser(PreparedStatement statement, int index, User user) throws SQLException {
+        statement.setString(index, user.getUsername());
+        statement.setString(index + 1, user.getPassword());
+        statement.setString(index + 2, user.getRole());
+    }
+
+    private static void bindDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, Math.toIntExact(date.toEpochDay()));
+        }
+    }
+
+    private static Book readBook(ResultSet rows) throws SQLException {
+        return new Book(rows.getString(1), rows.getString(2), rows.getString(3),
+                rows.getInt(4), rows.getInt(5), rows.getInt(6));
+    }
+
+    private static Transaction readTransaction(ResultSet rows) throws SQLException {
+        return readTransaction(rows, 1);
+    }
+
+    private static Transaction readTransaction(ResultSet rows, int index) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionID(rows.getString(index));
+        transaction.setMemberID(rows.getString(index + 1));
+        transaction.setMemberName(rows.getString(index + 2));
+        transaction.setIsbn(rows.getString(index + 3));
+        transaction.setBookTitle(rows.getString(index + 4));
+        transaction.setIssueDate(readDate(rows, index + 5));
+        transaction.setDueDate(readDate(rows, index + 6));
+        transaction.setReturnDate(readDate(rows, index + 7));
+        transaction.setFine(rows.getDouble(index + 8));
+        transaction.setActive(rows.getInt(index + 9) != 0);
+        return transaction;
+    }
+
+    private static LocalDate readDate(ResultSet rows, int index) throws SQLException {
+        int epochDay = rows.getInt(index);
+        return rows.wasNull() ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private interface SqlBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private interface SqlRowHandler {
+        void handle(ResultSet rows) throws SQLException;
+    }
+}
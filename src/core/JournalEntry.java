@@ -0,0 +1,51 @@
+package core;
+
+/**
+ * A single record in the write-ahead journal.
+ * Each issue or return is appended as one entry and replayed on startup
+ * on top of the last checkpointed JSON files.
+ */
+public class JournalEntry {
+
+    // Operation types
+    public static final String ISSUE = "ISSUE";
+    public static final String RETURN = "RETURN";
+
+    // Fields
+    private String op;
+    private Transaction transaction;
+
+    // Constructors
+    public JournalEntry() {
+    }
+
+    public JournalEntry(String op, Transaction transaction) {
+        this.op = op;
+        this.transaction = transaction;
+    }
+
+    // Getters
+    public String getOp() {
+        return op;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    // Utility Methods
+
+    public boolean isIssue() {
+        return ISSUE.equals(op);
+    }
+
+    public boolean isReturn() {
+        return RETURN.equals(op);
+    }
+
+    @Override
+    public String toString() {
+        return "Op: " + op + ", \n"
+                + "Transaction ID: " + (transaction != null ? transaction.getTransactionID() : null);
+    }
+}
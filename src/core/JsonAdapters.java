@@ -0,0 +1,280 @@
+package core;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+
+/**
+ * Streaming Gson adapters for the entity classes and LocalDate.
+ *
+ * They read and write fields directly through JsonReader/JsonWriter, with no
+ * reflection and no intermediate JsonElement tree. The output is the same as
+ * Gson's reflective adapter: the same field names in declaration order, and
+ * null fields left out. On read, unknown fields are skipped, and fields that
+ * are missing or null keep the value set by the no-arg constructor.
+ */
+public final class JsonAdapters {
+
+    private JsonAdapters() {
+    }
+
+    /**
+     * Register all adapters on a builder
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        LocalDateAdapter dates = new LocalDateAdapter();
+        return builder
+                .registerTypeAdapter(LocalDate.class, dates)
+                .registerTypeAdapter(Book.class, new BookAdapter().nullSafe())
+                .registerTypeAdapter(Member.class, new MemberAdapter().nullSafe())
+                .registerTypeAdapter(Transaction.class, new TransactionAdapter(dates).nullSafe())
+                .registerTypeAdapter(User.class, new UserAdapter().nullSafe());
+    }
+
+    // ==================== ADAPTERS ====================
+
+    /**
+     * LocalDate as an ISO "yyyy-MM-dd" string
+     */
+    static class LocalDateAdapter extends TypeAdapter<LocalDate> {
+        @Override
+        public void write(JsonWriter out, LocalDate date) throws IOException {
+            out.value(date == null ? null : date.toString());
+        }
+
+        @Override
+        public LocalDate read(JsonReader in) throws IOException {
+            String value = nextString(in);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new JsonSyntaxException("Invalid date \"" + value + "\" at " + in.getPath(), e);
+            }
+        }
+    }
+
+    static class BookAdapter extends TypeAdapter<Book> {
+        @Override
+        public void write(JsonWriter out, Book book) throws IOException {
+            out.beginObject();
+            out.name("isbn").value(book.getIsbn());
+            out.name("title").value(book.getTitle());
+            out.name("author").value(book.getAuthor());
+            out.name("totalCopies").value(book.getTotalCopies());
+            out.name("availableCopies").value(book.getAvailableCopies());
+            out.name("timesBorrowed").value(book.getTimesBorrowed());
+            out.endObject();
+        }
+
+        @Override
+        public Book read(JsonReader in) throws IOException {
+            Book book = new Book();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "isbn" -> book.setIsbn(in.nextString());
+                    case "title" -> book.setTitle(in.nextString());
+                    case "author" -> book.setAuthor(in.nextString());
+                    case "totalCopies" -> book.setTotalCopies(nextInt(in));
+                    case "availableCopies" -> book.setAvailableCopies(nextInt(in));
+                    case "timesBorrowed" -> book.setTimesBorrowed(nextInt(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return book;
+        }
+    }
+
+    static class MemberAdapter extends TypeAdapter<Member> {
+        @Override
+        public void write(JsonWriter out, Member member) throws IOException {
+            out.beginObject();
+            out.name("memberID").value(member.getMemberID());
+            out.name("name").value(member.getName());
+            out.name("email").value(member.getEmail());
+            out.name("borrowedBooks");
+            out.beginArray();
+            for (String isbn : member.getBorrowedBooks()) {
+                out.value(isbn);
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public Member read(JsonReader in) throws IOException {
+            Member member = new Member();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "memberID" -> member.setMemberID(in.nextString());
+                    case "name" -> member.setName(in.nextString());
+                    case "email" -> member.setEmail(in.nextString());
+                    case "borrowedBooks" -> {
+                        ArrayList<String> borrowed = member.getBorrowedBooks();
+                        borrowed.clear();
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            borrowed.add(nextString(in));
+                        }
+                        in.endArray();
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return member;
+        }
+    }
+
+    static class TransactionAdapter extends TypeAdapter<Transaction> {
+        private final LocalDateAdapter dates;
+
+        TransactionAdapter(LocalDateAdapter dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        public void write(JsonWriter out, Transaction transaction) throws IOException {
+            out.beginObject();
+            out.name("transactionID").value(transaction.getTransactionID());
+            out.name("memberID").value(transaction.getMemberID());
+            out.name("memberName").value(transaction.getMemberName());
+            out.name("isbn").value(transaction.getIsbn());
+            out.name("bookTitle").value(transaction.getBookTitle());
+            out.name("issueDate");
+            dates.write(out, transaction.getIssueDate());
+            out.name("dueDate");
+            dates.write(out, transaction.getDueDate());
+            out.name("returnDate");
+            dates.write(out, transaction.getReturnDate());
+            out.name("fine").value(transaction.getFine());
+            out.name("isActive").value(transaction.isActive());
+            out.endObject();
+        }
+
+        @Override
+        public Transaction read(JsonReader in) throws IOException {
+            Transaction transaction = new Transaction();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "transactionID" -> transaction.setTransactionID(in.nextString());
+                    case "memberID" -> transaction.setMemberID(in.nextString());
+                    case "memberName" -> transaction.setMemberName(in.nextString());
+                    case "isbn" -> transaction.setIsbn(in.nextString());
+                    case "bookTitle" -> transaction.setBookTitle(in.nextString());
+                    case "issueDate" -> transaction.setIssueDate(dates.read(in));
+                    case "dueDate" -> transaction.setDueDate(dates.read(in));
+                    case "returnDate" -> transaction.setReturnDate(dates.read(in));
+                    case "fine" -> transaction.setFine(nextDouble(in));
+                    case "isActive" -> transaction.setActive(nextBoolean(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return transaction;
+        }
+    }
+
+    static class UserAdapter extends TypeAdapter<User> {
+        @Override
+        public void write(JsonWriter out, User user) throws IOException {
+            out.beginObject();
+            out.name("username").value(user.getUsername());
+            out.name("password").value(user.getPassword());
+            out.name("role").value(user.getRole());
+            out.endObject();
+        }
+
+        @Override
+        public User read(JsonReader in) throws IOException {
+            User user = new User();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "username" -> user.setUsername(in.nextString());
+                    case "password" -> user.setPassword(in.nextString());
+                    case "role" -> user.setRole(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return user;
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Consume a JSON null, so the field keeps its default like the reflective adapter
+     */
+    private static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        return skipNull(in) ? null : in.nextString();
+    }
+
+    /**
+     * Report malformed numbers as syntax errors, as Gson's number adapters do
+     */
+    private static int nextInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Invalid number at " + in.getPath(), e);
+        }
+    }
+
+    private static double nextDouble(JsonReader in) throws IOException {
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Invalid number at " + in.getPath(), e);
+        }
+    }
+
+    /**
+     * Accept "true"/"false" strings as well, as Gson's boolean adapter does
+     */
+    private static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+}
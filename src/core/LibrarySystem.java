@@ -3,10 +3,24 @@ package core;
 import javax.xml.datatype.Duration;
 import java.io.FileNotFoundException;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Period;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class LibrarySystem {
 
@@ -16,20 +30,99 @@ public class LibrarySystem {
     private ArrayList<Transaction> transactions;
     private ArrayList<User> users;
 
-    private DataManager dataManager;
+    // Primary key indexes, kept in step with the lists above. Issues add transactions
+    // under the shared lock, so that map is concurrent
+    private HashMap<String, Book> booksByISBN;
+    private HashMap<String, Member> membersByID;
+    private HashMap<String, User> usersByUsername;
+    private ConcurrentHashMap<String, Transaction> transactionsByID;
+
+    // Active loans grouped by member and by book; each list is guarded by its key's stripe
+    private ConcurrentHashMap<String, ArrayList<Transaction>> activeByMember;
+    private ConcurrentHashMap<String, ArrayList<Transaction>> activeByISBN;
+
+    // Word and substring indexes over book titles and authors
+    private TokenIndex titleIndex;
+    private TokenIndex authorIndex;
+    private TrigramIndex titleGrams;
+    private TrigramIndex authorGrams;
+
+    // Sorted prefix indexes for autocomplete
+    private PrefixIndex isbnPrefixes;
+    private PrefixIndex titlePrefixes;
+    private PrefixIndex authorPrefixes;
+    private PrefixIndex memberIDPrefixes;
+
+    // Where the collections are kept: JSON files, or a database with -Dlms.jdbcUrl
+    private StorageBackend storage;
+
+    // Collections changed since they were last written, and bytes not rewritten as a result
+    private EnumSet<DataSet> dirty;
+    private long bytesAvoided;
+
+    // Locking, so several desks can share one instance. Catalogue edits, archiving and
+    // whole-collection saves hold the catalog lock exclusively; everything else shares it.
+    // An issue or return also locks its member's stripe, so loans by other members run
+    // alongside it when the backend stores single rows. Copies are claimed on the Book
+    // without a lock; a book's stripe is held only while its active-loan list changes.
+    // Lock order: catalog lock, then member stripe, then book stripe.
+    private ReentrantReadWriteLock catalogLock;
+    private StripedLocks memberLocks;
+    private StripedLocks bookLocks;
 
     // Business rules constants
     private static final int MAX_BORROW_LIMIT = 3;
     private static final int LOAN_PERIOD_DAYS = 14;
     private static final double FINE_PER_DAY = 1.0;
 
-    // Constructor
+    // Journal records written before the JSON files are rebuilt
+    private static final int CHECKPOINT_INTERVAL = 200;
+
+    // Loans closed longer ago than this move to the archive (-1 keeps everything resident)
+    private static final int ARCHIVE_AFTER_DAYS = Integer.getInteger("lms.archiveAfterDays", 365);
+
+    // Threads used to read the data files and build the indexes at startup
+    private static final int LOADER_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    // Lazy history: only active loans are loaded; every closed loan is archived and read on demand
+    private static final boolean LAZY_HISTORY = Boolean.getBoolean("lms.lazyHistory");
+
+    // Locks per key space for issues and returns
+    private static final int LOCK_STRIPES = 64;
+
+    // Constructors
     public LibrarySystem() throws FileNotFoundException {
+        this(openStorage());
+    }
+
+    /**
+     * Use the given storage instead of the configured one, e.g. an in-memory
+     * or no-op backend to profile the business logic without file I/O
+     */
+    public LibrarySystem(StorageBackend storage) throws FileNotFoundException {
         books = new ArrayList<>();
         users = new ArrayList<>();
         members = new ArrayList<>();
         transactions = new ArrayList<>();
-        this.dataManager = new DataManager();
+        booksByISBN = new HashMap<>();
+        membersByID = new HashMap<>();
+        usersByUsername = new HashMap<>();
+        transactionsByID = new ConcurrentHashMap<>();
+        activeByMember = new ConcurrentHashMap<>();
+        activeByISBN = new ConcurrentHashMap<>();
+        titleIndex = new TokenIndex();
+        authorIndex = new TokenIndex();
+        titleGrams = new TrigramIndex();
+        authorGrams = new TrigramIndex();
+        isbnPrefixes = new PrefixIndex();
+        titlePrefixes = new PrefixIndex();
+        authorPrefixes = new PrefixIndex();
+        memberIDPrefixes = new PrefixIndex();
+        dirty = EnumSet.noneOf(DataSet.class);
+        catalogLock = new ReentrantReadWriteLock();
+        memberLocks = new StripedLocks(LOCK_STRIPES);
+        bookLocks = new StripedLocks(LOCK_STRIPES);
+        this.storage = storage;
         loadAllData();
     }
 
@@ -40,14 +133,13 @@ public class LibrarySystem {
      * @return User object if valid, null if invalid
      */
     public User login(String username, String password) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getUsername().equals(username)){
-                if (users.get(i).getPassword().equals(password)){
-                    return users.get(i);
-                }
+        return shared(() -> {
+            User user = usersByUsername.get(username);
+            if (user != null && user.getPassword().equals(password)) {
+                return user;
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     /**
@@ -55,148 +147,215 @@ public class LibrarySystem {
      * @return true if successful, false if username already exists
      */
     public boolean registerUser(String username, String password, String role) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getUsername().equals(username)){
+        return exclusive(() -> {
+            if (usersByUsername.containsKey(username)) {
                 return false;
             }
-        }
 
-        User user = new User(username, password, role);
-        users.add(user);
+            User user = new User(username, password, role);
+            users.add(user);
+            usersByUsername.put(username, user);
 
-        return dataManager.saveUsers(users);
+            if (storage.saveUser(user)) {
+                return true;
+            }
+            dirty.add(DataSet.USERS);
+            return persist();
+        });
     }
 
     // ==================== BOOK OPERATIONS ====================
 
     /**
-     * Get all books in the library
+     * Get all books in the library (a copy, safe to walk while others edit the catalogue)
      */
     public ArrayList<Book> getAllBooks() {
-        return books;
+        return shared(() -> new ArrayList<>(books));
     }
 
     /**
      * Search books by title (case-insensitive, partial match)
      */
     public ArrayList<Book> searchByTitle(String title) {
-        return books.stream()
-                .filter(book -> book.getTitle().toLowerCase(Locale.ROOT)
-                        .contains(title.toLowerCase(Locale.ROOT)))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return searchByTitle(title, SearchMode.SUBSTRING);
+    }
+
+    /**
+     * Search books by title using the given match mode
+     */
+    public ArrayList<Book> searchByTitle(String title, SearchMode mode) {
+        return shared(() -> {
+            if (mode == SearchMode.WORDS) {
+                if (TokenIndex.tokenize(title).isEmpty()) {
+                    return new ArrayList<>(books);
+                }
+                return booksFor(titleIndex.search(title));
+            }
+            return booksFor(titleGrams.search(title));
+        });
     }
 
     /**
      * Search books by author (case-insensitive, partial match)
      */
     public ArrayList<Book> searchByAuthor(String author) {
-        return books.stream()
-                .filter(book -> book.getAuthor().toLowerCase()
-                        .contains(author.toLowerCase()))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return searchByAuthor(author, SearchMode.SUBSTRING);
+    }
+
+    /**
+     * Search books by author using the given match mode
+     */
+    public ArrayList<Book> searchByAuthor(String author, SearchMode mode) {
+        return shared(() -> {
+            if (mode == SearchMode.WORDS) {
+                if (TokenIndex.tokenize(author).isEmpty()) {
+                    return new ArrayList<>(books);
+                }
+                return booksFor(authorIndex.search(author));
+            }
+            return booksFor(authorGrams.search(author));
+        });
     }
 
     /**
      * Search book by exact ISBN
      */
     public Book searchByISBN(String isbn) {
-        return (Book) books.stream().filter(book -> book.getIsbn().equals(isbn)).findFirst().orElse(null);
+        return shared(() -> booksByISBN.get(isbn));
     }
 
     /**
      * Add a new book to the library
      */
     public boolean addBook(String isbn, String title, String author, int totalCopies) {
-        for (int i = 0; i < books.size(); i++) {
-            if (books.get(i).getIsbn().equals(isbn)) {
+        return exclusive(() -> {
+            if (booksByISBN.containsKey(isbn)) {
                 return false;
             }
-        }
-        Book book = new Book(isbn, title, author, totalCopies);
-        books.add(book);
+            Book book = new Book(isbn, title, author, totalCopies);
+            books.add(book);
+            booksByISBN.put(isbn, book);
+            indexText(book);
 
-        return dataManager.saveBooks(books);
+            return saveBook(book);
+        });
     }
 
     /**
      * Update existing book information
      */
     public boolean updateBook(String isbn, String newTitle, String newAuthor, int newTotalCopies) {
-        // TODO: Find book by ISBN
-        for (int i = 0; i < books.size(); i++) {
-            if (books.get(i).getIsbn().equals(isbn)) {
-                if(newTotalCopies >= books.get(i).getTotalCopies() - books.get(i).getAvailableCopies()){
-                    books.get(i).setAuthor(newAuthor);
-                    books.get(i).setTitle(newTitle);
-                    books.get(i).setTotalCopies(newTotalCopies);
+        return exclusive(() -> {
+            Book book = booksByISBN.get(isbn);
+            if (book != null) {
+                if(newTotalCopies >= book.getTotalCopies() - book.getAvailableCopies()){
+                    unindexText(book);
+                    book.setAuthor(newAuthor);
+                    book.setTitle(newTitle);
+                    book.setTotalCopies(newTotalCopies);
+                    indexText(book);
                 }
+                return saveBook(book);
             }
-        }
 
-        return dataManager.saveBooks(books);
+            return saveBooks();
+        });
     }
 
     /**
      * Delete a book from the library
      */
     public boolean deleteBook(String isbn) {
-        for (int i = 0; i < books.size(); i++) {
-            if (books.get(i).getIsbn().equals(isbn)) {
-                if(books.get(i).getAvailableCopies() < books.get(i).getTotalCopies()){
+        return exclusive(() -> {
+            Book book = booksByISBN.get(isbn);
+            if (book != null) {
+                if(book.getAvailableCopies() < book.getTotalCopies()){
                     return false;
                 }
-                books.remove(books.get(i));
+                books.remove(book);
+                booksByISBN.remove(isbn);
+                unindexText(book);
+                return removeBook(isbn);
             }
-        }
-        return dataManager.saveBooks(books);
+            return saveBooks();
+        });
+    }
+
+    // ==================== AUTOCOMPLETE ====================
+
+    /**
+     * Get up to limit ISBNs starting with prefix
+     */
+    public List<String> completeISBN(String prefix, int limit) {
+        return shared(() -> isbnPrefixes.complete(prefix, limit));
+    }
+
+    /**
+     * Get up to limit titles starting with prefix
+     */
+    public List<String> completeTitle(String prefix, int limit) {
+        return shared(() -> titlePrefixes.complete(prefix, limit));
+    }
+
+    /**
+     * Get up to limit author names starting with prefix
+     */
+    public List<String> completeAuthor(String prefix, int limit) {
+        return shared(() -> authorPrefixes.complete(prefix, limit));
+    }
+
+    /**
+     * Get up to limit member IDs starting with prefix
+     */
+    public List<String> completeMemberID(String prefix, int limit) {
+        return shared(() -> memberIDPrefixes.complete(prefix, limit));
     }
 
     // ==================== MEMBER OPERATIONS ====================
 
     /**
-     * Get all members
+     * Get all members (a copy, safe to walk while others edit the member list)
      */
     public ArrayList<Member> getAllMembers() {
-        return members;
+        return shared(() -> new ArrayList<>(members));
     }
 
     /**
      * Find member by ID
      */
     public Member findMemberByID(String memberID) {
-        for (int i = 0; i < members.size(); i++) {
-            if (members.get(i).getMemberID().equals(memberID)){
-                return members.get(i);
-            }
-        }
-        return null;
+        return shared(() -> membersByID.get(memberID));
     }
 
     /**
      * Add a new member
      */
     public boolean addMember(String memberID, String name, String email) {
-        for (int i = 0; i < members.size(); i++) {
-            if (members.get(i).getMemberID().equals(memberID)){
+        return exclusive(() -> {
+            if (membersByID.containsKey(memberID)) {
                 return false;
             }
-        }
-        Member member = new Member(memberID, name, email);
-        members.add(member);
-        return dataManager.saveMembers(members);
+            Member member = new Member(memberID, name, email);
+            members.add(member);
+            membersByID.put(memberID, member);
+            memberIDPrefixes.add(memberID);
+            return saveMember(member);
+        });
     }
 
     /**
      * Update member information
      */
     public boolean updateMember(String memberID, String newName, String newEmail) {
-        for (int i = 0; i < members.size(); i++) {
-            if (members.get(i).getMemberID().equals(memberID)){
-                members.get(i).setName(newName);
-                members.get(i).setEmail(newEmail);
+        return exclusive(() -> {
+            Member member = membersByID.get(memberID);
+            if (member != null) {
+                member.setName(newName);
+                member.setEmail(newEmail);
+                return saveMember(member);
             }
-        }
-        return dataManager.saveMembers(members);
+            return saveMembers();
+        });
     }
 
     /**
@@ -204,23 +363,34 @@ public class LibrarySystem {
      */
 
     public boolean deleteMember(String memberID) {
-        for (int i = 0; i < members.size(); i++) {
-            if (members.get(i).getMemberID().equals(memberID)){
-                if (!members.get(i).getBorrowedBooks().isEmpty()) { // ✅ Has books
-                    return false;
-                }
-                Member toRemove = members.get(i);
-                members.remove(i);
-                boolean saved = dataManager.saveMembers(members);
+        return exclusive(() -> {
+            Member toRemove = membersByID.get(memberID);
+            if (toRemove == null) {
+                return false;
+            }
+            if (!toRemove.getBorrowedBooks().isEmpty()) { // ✅ Has books
+                return false;
+            }
 
-                if (!saved) {
-                    members.add(i, toRemove);
-                    return false;
+            // Member.equals compares against the ID, so locate the entry by identity
+            for (int i = 0; i < members.size(); i++) {
+                if (members.get(i) == toRemove) {
+                    members.remove(i);
+                    membersByID.remove(memberID);
+                    memberIDPrefixes.remove(memberID);
+                    boolean saved = removeMember(memberID);
+
+                    if (!saved) {
+                        members.add(i, toRemove);
+                        membersByID.put(memberID, toRemove);
+                        memberIDPrefixes.add(memberID);
+                        return false;
+                    }
+                    return true;
                 }
-                return true;
             }
-        }
-        return false;
+            return false;
+        });
     }
 
     // ==================== TRANSACTION OPERATIONS ====================
@@ -230,55 +400,60 @@ public class LibrarySystem {
      * @return Transaction object if successful, null if failed
      */
     public Transaction issueBook(String memberID, String isbn) {
-        Member member = findMemberByID(memberID);
-        Book book = searchByISBN(isbn);
-
-        // Validation checks
-        if (member == null) {
-            System.err.println("Error: Member not found");
-            return null;
-        }
-
-        if (book == null) {
-            System.err.println("Error: Book not found");
-            return null;
-        }
+        return runLoan(JournalEntry.ISSUE, memberID, () -> {
+            Member member = membersByID.get(memberID);
+            Book book = booksByISBN.get(isbn);
+
+            // Validation checks, made under the member's lock so they still hold below
+            if (member == null) {
+                System.err.println("Error: Member not found");
+                return null;
+            }
 
-        if (!book.isAvailable()) {
-            System.err.println("Error: Book not available");
-            return null;
-        }
+            if (book == null) {
+                System.err.println("Error: Book not found");
+                return null;
+            }
 
-        if (!member.canBorrowMore(MAX_BORROW_LIMIT)) {
-            System.err.println("Error: Member has reached borrowing limit");
-            return null;
-        }
+            if (!book.isAvailable()) {
+                System.err.println("Error: Book not available");
+                return null;
+            }
 
-        if (hasOverdueBooks(memberID)) {
-            System.err.println("Error: Member has overdue books");
-            return null;
-        }
+            if (!member.canBorrowMore(MAX_BORROW_LIMIT)) {
+                System.err.println("Error: Member has reached borrowing limit");
+                return null;
+            }
 
-        // All checks passed - create transaction
-        Transaction transaction = new Transaction(
-                UUID.randomUUID().toString(),
-                memberID,
-                member.getName(),
-                isbn,
-                book.getTitle(),
-                LocalDate.now(),
-                calculateDueDate()
-        );
+            if (hasOverdue(memberID)) {
+                System.err.println("Error: Member has overdue books");
+                return null;
+            }
 
-        book.borrowCopy();
+            // Other members may be taking copies of the same book: claiming one is what counts
+            if (!book.borrowCopy()) {
+                System.err.println("Error: Book not available");
+                return null;
+            }
 
-        member.addBorrowedBook(isbn);
+            // All checks passed - create transaction
+            Transaction transaction = new Transaction(
+                    UUID.randomUUID().toString(),
+                    memberID,
+                    member.getName(),
+                    isbn,
+                    book.getTitle(),
+                    LocalDate.now(),
+                    calculateDueDate()
+            );
 
-        transactions.add(transaction);
+            member.addBorrowedBook(isbn);
 
-        saveAllData();
+            addResident(transaction);
+            indexActive(transaction);
 
-        return transaction;
+            return transaction;
+        });
     }
 
     /**
@@ -286,44 +461,177 @@ public class LibrarySystem {
      * @return Transaction object with fine calculated, null if failed
      */
     public Transaction returnBook(String transactionID) {
-        for (Transaction transaction : transactions) {
-            if (transaction.getTransactionID().equals(transactionID)) {
-                if (transaction.isActive()) {
-                    Book book = searchByISBN(transaction.getIsbn());
-                    Member member = findMemberByID(transaction.getMemberID());
+        Transaction transaction = findTransaction(transactionID);
+        if (transaction == null) {
+            return null;
+        }
+        return runLoan(JournalEntry.RETURN, transaction.getMemberID(), () -> {
+            // Checked under the member's lock, so a loan returned at two desks at once is returned once
+            if (!transaction.isActive()) {
+                return null;
+            }
+            Book book = booksByISBN.get(transaction.getIsbn());
+            Member member = membersByID.get(transaction.getMemberID());
 
-                    double fine = calculateFine(transaction);
+            double fine = calculateFine(transaction);
 
-                    transaction.markAsReturned(LocalDate.now(), fine);
+            transaction.markAsReturned(LocalDate.now(), fine);
+            unindexActive(transaction);
 
-                    book.returnCopy();
+            book.returnCopy();
 
-                    member.removeBorrowedBook(transaction.getIsbn());
+            member.removeBorrowedBook(transaction.getIsbn());
 
-                    saveAllData();
+            return transaction;
+        });
+    }
 
-                    return transaction;
-                }
+    /**
+     * Get all active transactions for a member
+     */
+    public ArrayList<Transaction> getActiveTransactions(String memberID) {
+        return locked(memberLocks.get(memberID), () -> copyActive(activeByMember, memberID));
+    }
+
+    /**
+     * Get all active transactions for a book
+     */
+    public ArrayList<Transaction> getActiveTransactionsByISBN(String isbn) {
+        return locked(bookLocks.get(isbn), () -> copyActive(activeByISBN, isbn));
+    }
+
+    /**
+     * Get all transactions (active and completed), reading archived history from disk.
+     * The walk holds the shared lock, so archiving cannot rewrite a month under it.
+     */
+    public ArrayList<Transaction> getAllTransactions() {
+        return shared(() -> {
+            ArrayList<Transaction> all = new ArrayList<>();
+            historyIterator().forEachRemaining(all::add);
+            return all;
+        });
+    }
+
+    /**
+     * Iterate over all transactions, archived history first.
+     * Archived loans are paged in one compressed block at a time, so a report can
+     * walk years of history without holding it in memory.
+     * If archiving rewrites a month during the walk, next() throws
+     * ConcurrentModificationException; getAllTransactions() never sees that.
+     */
+    public Iterator<Transaction> historyIterator() {
+        // Resident loans are copied so issues and returns during the walk do not disturb it
+        ArrayList<Transaction> resident = residentTransactions();
+        Stream<Transaction> archived = StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(storage.archiveIterator(), Spliterator.ORDERED), false)
+                .filter(transaction -> findTransaction(transaction.getTransactionID()) == null);
+        return Stream.concat(archived, resident.stream()).iterator();
+    }
+
+    /**
+     * Get the transactions issued in one month, reading that month's archive segment
+     */
+    public ArrayList<Transaction> getTransactionsIssuedIn(YearMonth month) {
+        ArrayList<Transaction> issued = new ArrayList<>();
+        storage.loadArchivedTransactions(month, transaction -> addArchived(issued, transaction));
+        for (Transaction transaction : residentTransactions()) {
+            if (transaction.getIssueDate() != null && YearMonth.from(transaction.getIssueDate()).equals(month)) {
+                issued.add(transaction);
+            }
+        }
+        return issued;
+    }
+
+    /**
+     * Get every transaction of a member, archived history first
+     */
+    public ArrayList<Transaction> getMemberHistory(String memberID) {
+        ArrayList<Transaction> history = new ArrayList<>();
+        storage.loadArchivedTransactions(memberID, null, transaction -> addArchived(history, transaction));
+        for (Transaction transaction : residentTransactions()) {
+            if (memberID.equals(transaction.getMemberID())) {
+                history.add(transaction);
             }
         }
+        return history;
+    }
 
-        return null;
+    /**
+     * Check if a member has ever borrowed a book, current loans included
+     */
+    public boolean hasEverBorrowed(String memberID, String isbn) {
+        for (Transaction transaction : residentTransactions()) {
+            if (memberID.equals(transaction.getMemberID()) && isbn.equals(transaction.getIsbn())) {
+                return true;
+            }
+        }
+        return storage.hasArchivedLoan(memberID, isbn);
     }
 
     /**
-     * Get all active transactions for a member
+     * Get the months with archived transactions, oldest first
      */
-    public ArrayList<Transaction> getActiveTransactions(String memberID) {
-        return transactions.stream()
-                .filter(transaction -> transaction.getMemberID().equals(memberID) && transaction.isActive())
-                .collect(Collectors.toCollection(ArrayList::new));
+    public List<YearMonth> getArchiveMonths() {
+        return storage.getArchiveMonths();
     }
 
     /**
-     * Get all transactions (active and completed)
+     * Move loans closed more than ARCHIVE_AFTER_DAYS ago out of memory into the monthly archive.
+     * Runs only from checkpoint() and at startup, once the journal has been folded into the files.
+     * @return number of transactions archived
      */
-    public ArrayList<Transaction> getAllTransactions() {
-        return transactions;
+    private int archiveHistory() {
+        return exclusive(() -> {
+            if (ARCHIVE_AFTER_DAYS < 0 && !LAZY_HISTORY) {
+                return 0;
+            }
+            LocalDate horizon = LocalDate.now().minusDays(Math.max(ARCHIVE_AFTER_DAYS, 0));
+            Predicate<Transaction> archivable = transaction -> !transaction.isActive()
+                    && transaction.getIssueDate() != null && transaction.getReturnDate() != null
+                    && (LAZY_HISTORY || transaction.getReturnDate().isBefore(horizon));
+
+            // Closed loans were never loaded in lazy mode, so the store decides what moves
+            if (LAZY_HISTORY && storage.hasTransactionStore()) {
+                List<Transaction> archived = storage.archiveStoredTransactions(archivable);
+                for (Transaction transaction : archived) {
+                    Transaction resident = findTransaction(transaction.getTransactionID());
+                    if (resident != null && !resident.isActive()) {
+                        transactionsByID.remove(transaction.getTransactionID());
+                        transactions.removeIf(t -> t == resident);
+                    }
+                }
+                return archived.size();
+            }
+
+            ArrayList<Transaction> closed = new ArrayList<>();
+            ArrayList<Transaction> remaining = new ArrayList<>();
+            for (Transaction transaction : transactions) {
+                if (archivable.test(transaction)) {
+                    closed.add(transaction);
+                } else {
+                    remaining.add(transaction);
+                }
+            }
+            if (closed.isEmpty() || !storage.archiveTransactions(closed)) {
+                return 0;
+            }
+
+            transactions = remaining;
+            for (Transaction transaction : closed) {
+                if (transaction.getTransactionID() != null) {
+                    transactionsByID.remove(transaction.getTransactionID(), transaction);
+                }
+            }
+
+            // Archived first, then dropped from live storage: a crash in between only duplicates
+            if (storage.hasTransactionStore()) {
+                storage.compactTransactions(remaining);
+            } else {
+                dirty.add(DataSet.TRANSACTIONS);
+                persist();
+            }
+            return closed.size();
+        });
     }
 
     // ==================== VALIDATION & BUSINESS LOGIC ====================
@@ -332,20 +640,27 @@ public class LibrarySystem {
      * Check if member can borrow more books
      */
     public boolean canMemberBorrow(String memberID) {
-        Member member = findMemberByID(memberID);
-        if (member.canBorrowMore(MAX_BORROW_LIMIT)){
-            return true;
-        }
-        return false;
+        return shared(() -> locked(memberLocks.get(memberID), () -> {
+            Member member = membersByID.get(memberID);
+            if (member.canBorrowMore(MAX_BORROW_LIMIT)){
+                return true;
+            }
+            return false;
+        }));
     }
 
     /**
      * Check if member has overdue books
      */
     public boolean hasOverdueBooks(String memberID) {
-        ArrayList<Transaction> memberTransactions = transactions.stream()
-                .filter(transaction -> transaction.getMemberID().equals(memberID) && transaction.isActive())
-                .collect(Collectors.toCollection(ArrayList::new));
+        return locked(memberLocks.get(memberID), () -> hasOverdue(memberID));
+    }
+
+    private boolean hasOverdue(String memberID) {
+        ArrayList<Transaction> memberTransactions = memberID != null ? activeByMember.get(memberID) : null;
+        if (memberTransactions == null) {
+            return false;
+        }
 
         for (Transaction transaction : memberTransactions) {
             if (transaction.isOverdue()) {
@@ -382,18 +697,20 @@ public class LibrarySystem {
      * Get total number of books
      */
     public int getTotalBooksCount() {
-        return books.size();
+        return shared(() -> books.size());
     }
 
     /**
      * Get number of available books (sum of all availableCopies)
      */
     public long getAvailableBooksCount() {
-        long count = 0;
-        for (Book book : books){
-            count += book.getAvailableCopies();
-        }
-        return count;
+        return shared(() -> {
+            long count = 0;
+            for (Book book : books){
+                count += book.getAvailableCopies();
+            }
+            return count;
+        });
     }
 
     /**
@@ -401,43 +718,632 @@ public class LibrarySystem {
      */
     public int getBorrowedBooksCount() {
         long count = 0;
-        for (Transaction transaction : transactions){
-            if (transaction.isActive()) count++;
+        for (ArrayList<Transaction> active : activeByMember.values()){
+            count += active.size();
         }
-        return 0;
+        return (int) count;
     }
 
     /**
      * Get most borrowed books (top N)
      */
     public ArrayList<Book> getMostBorrowedBooks(int limit) {
-        return books.stream()
-                .sorted(Comparator.comparing(Book::getTimesBorrowed).reversed()) // reversed for descending order
-                .limit(limit)
-                .collect(Collectors.toCollection(ArrayList::new));
+        return shared(() -> {
+            // Counts change while loans run alongside, so rank a copy of them; a count that
+            // moved mid-sort would break the sort's contract
+            ArrayList<Book> ranked = new ArrayList<>(books);
+            IdentityHashMap<Book, Integer> counts = new IdentityHashMap<>(ranked.size());
+            for (Book book : ranked) {
+                counts.put(book, book.getTimesBorrowed());
+            }
+            return ranked.stream()
+                    .sorted(Comparator.comparing((Book book) -> counts.get(book)).reversed()) // reversed for descending order
+                    .limit(limit)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        });
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    /**
+     * Write any saves still queued by the write-behind flusher
+     * @return true if everything saved so far is on disk
+     */
+    public boolean flush() {
+        return storage.flush();
+    }
+
+    /**
+     * Write anything still queued and release the storage, closing a database connection.
+     * Waits for edits under way; the system is not used afterwards.
+     */
+    public void shutdown() {
+        exclusive(() -> {
+            storage.shutdown();
+            return null;
+        });
+    }
+
+    /**
+     * Get the bytes of unchanged files skipped by saves so far
+     */
+    public long getBytesAvoided() {
+        return shared(() -> bytesAvoided);
     }
 
     // ==================== HELPER METHODS ====================
 
     /**
-     * Save all data to files
+     * Save every collection changed since it was last written
      */
-    private void saveAllData() {
-        dataManager.saveMembers(members);
-        dataManager.saveBooks(books);
-        dataManager.saveTransactions(transactions);
-        dataManager.saveUsers(users);
+    private boolean saveAllData() {
+        boolean saved = true;
+        for (DataSet set : DataSet.values()) {
+            if (!dirty.contains(set)) {
+                bytesAvoided += storage.getStoredSize(set);
+            } else if (save(set)) {
+                dirty.remove(set);
+            } else {
+                saved = false;
+            }
+        }
+        return saved;
+    }
+
+    private boolean save(DataSet set) {
+        return switch (set) {
+            case MEMBERS -> storage.saveMembers(members);
+            case BOOKS -> storage.saveBooks(books);
+            case TRANSACTIONS -> storage.saveTransactions(transactions);
+            case USERS -> storage.saveUsers(users);
+        };
     }
 
     /**
-     * Load all data from files
+     * Rewrite all files and discard the journal they now contain
+     */
+    private boolean checkpoint() {
+        // Queued write-behind saves must be on disk before the journal goes
+        if (!saveAllData() || !storage.flush()) {
+            return false;
+        }
+        saveSnapshot();
+        if (!storage.clearJournal()) {
+            return false;
+        }
+        archiveHistory();
+        return true;
+    }
+
+    /**
+     * Run an issue or return under its locks, then persist it; a checkpoint that falls due
+     * runs after the locks are released.
+     * With row updates the loan shares the catalog lock and holds only its member's stripe
+     * while it checks, changes and stores the loan; otherwise every save rewrites whole
+     * collections, so the loan has them to itself.
+     * Loans of one book by different members run at once: the copy count is claimed without
+     * a lock, and the backend reads the book's current counts when it stores the row.
+     * @return the transaction, or null if action turned the loan down
+     */
+    private Transaction runLoan(String op, String memberID, Supplier<Transaction> action) {
+        Lock catalog = storage.supportsRowUpdates() ? catalogLock.readLock() : catalogLock.writeLock();
+        Lock memberLock = memberLocks.get(memberID);
+        Transaction transaction;
+        boolean stored = true;
+        catalog.lock();
+        memberLock.lock();
+        try {
+            transaction = action.get();
+            if (transaction != null) {
+                stored = logMutation(op, transaction);
+            }
+        } finally {
+            memberLock.unlock();
+            catalog.unlock();
+        }
+
+        if (!stored) {
+            // Fall back to saving the collections, which needs them to itself
+            exclusive(() -> {
+                dirty.addAll(EnumSet.of(DataSet.BOOKS, DataSet.MEMBERS, DataSet.TRANSACTIONS));
+                return saveAllData();
+            });
+        } else if (transaction != null && checkpointDue()) {
+            // Taken only now, so the loan does not keep its locks across the rewrite;
+            // checked again since another loan may have checkpointed in between
+            exclusive(() -> !checkpointDue() || checkpoint());
+        }
+        return transaction;
+    }
+
+    /**
+     * Check if the journal has grown enough to be folded into the files
+     */
+    private boolean checkpointDue() {
+        return storage.isJournalMode() && storage.getJournalSize() >= CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * Persist an issue or return, appending to the journal when journal mode is on
+     * @return false if the backend failed to store the loan's rows
+     */
+    private boolean logMutation(String op, Transaction transaction) {
+        if (storage.supportsRowUpdates()) {
+            // One write covering the transaction, its book and its member
+            return storage.saveLoan(transaction, booksByISBN.get(transaction.getIsbn()),
+                    membersByID.get(transaction.getMemberID()));
+        }
+
+        // An issue or return touches the book, the member and the transaction, never users
+        dirty.addAll(EnumSet.of(DataSet.BOOKS, DataSet.MEMBERS));
+
+        if (!storage.isJournalMode()) {
+            storeTransaction(op, transaction);
+            saveAllData();
+            return true;
+        }
+
+        // Journal first: it is what replay trusts after a crash. Appended under the lock,
+        // so records are in the order the loans were applied
+        boolean journaled = storage.appendToJournal(new JournalEntry(op, transaction));
+        storeTransaction(op, transaction);
+        if (!journaled) {
+            // The loan is only durable once the files hold it
+            checkpoint();
+        }
+        return true;
+    }
+
+    /**
+     * Run a query while no catalogue edit, archiving or whole-collection save is under way
+     */
+    private <T> T shared(Supplier<T> query) {
+        return locked(catalogLock.readLock(), query);
+    }
+
+    /**
+     * Run an edit or a save with the collections to itself
+     */
+    private <T> T exclusive(Supplier<T> update) {
+        return locked(catalogLock.writeLock(), update);
+    }
+
+    private static <T> T locked(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append an issued transaction to the transaction store, or update a returned one in place.
+     * Without a usable store the transaction goes to transactions.json instead.
+     */
+    private void storeTransaction(String op, Transaction transaction) {
+        if (!storage.hasTransactionStore()) {
+            dirty.add(DataSet.TRANSACTIONS);
+            return;
+        }
+
+        boolean stored = JournalEntry.ISSUE.equals(op)
+                ? storage.appendTransaction(transaction)
+                : storage.updateTransaction(transaction);
+        if (!stored) {
+            // Write the full history to JSON once, then stop using the store
+            dirty.add(DataSet.TRANSACTIONS);
+            if (save(DataSet.TRANSACTIONS) && storage.flush()) {
+                dirty.remove(DataSet.TRANSACTIONS);
+                storage.discardTransactionStore();
+            }
+        }
+    }
+
+    /**
+     * Save one changed book, as a single row when the backend supports it
+     */
+    private boolean saveBook(Book book) {
+        if (storage.saveBook(book)) {
+            return true;
+        }
+        return saveBooks();
+    }
+
+    /**
+     * Remove a deleted book from storage, as a single row when the backend supports it
+     */
+    private boolean removeBook(String isbn) {
+        if (storage.deleteBook(isbn)) {
+            return true;
+        }
+        return saveBooks();
+    }
+
+    /**
+     * Save one changed member, as a single row when the backend supports it
+     */
+    private boolean saveMember(Member member) {
+        if (storage.saveMember(member)) {
+            return true;
+        }
+        return saveMembers();
+    }
+
+    /**
+     * Remove a deleted member from storage, as a single row when the backend supports it
+     */
+    private boolean removeMember(String memberID) {
+        if (storage.deleteMember(memberID)) {
+            return true;
+        }
+        return saveMembers();
+    }
+
+    /**
+     * Save books after an edit
+     */
+    private boolean saveBooks() {
+        dirty.add(DataSet.BOOKS);
+        return persist();
+    }
+
+    /**
+     * Save members after an edit
+     */
+    private boolean saveMembers() {
+        dirty.add(DataSet.MEMBERS);
+        return persist();
+    }
+
+    /**
+     * Write dirty collections; folds in pending journal records so the files stay consistent
+     */
+    private boolean persist() {
+        if (storage.hasPendingJournal()) {
+            return checkpoint();
+        }
+        return saveAllData();
+    }
+
+    /**
+     * The database backend when -Dlms.jdbcUrl is set, otherwise the JSON files.
+     * An empty database is filled from the JSON files, which are only read for it.
+     * A configured database that cannot be opened or filled stops the startup: once
+     * it has been filled, the JSON files are stale and must not be used in its place.
+     */
+    private static StorageBackend openStorage() {
+        String url = System.getProperty("lms.jdbcUrl");
+        if (url == null || url.isBlank()) {
+            return new DataManager();
+        }
+
+        JdbcStorageBackend database;
+        try {
+            database = new JdbcStorageBackend(url, System.getProperty("lms.jdbcUser", ""),
+                    System.getProperty("lms.jdbcPassword", ""));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot open database " + url + ": " + e.getMessage(), e);
+        }
+
+        // First use: start from the data kept in the JSON files
+        if (database.isEmpty()) {
+            DataManager json = DataManager.openReadOnly();
+            boolean imported;
+            try {
+                imported = database.importFrom(json);
+            } finally {
+                json.shutdown();
+            }
+            if (!imported) {
+                database.shutdown();
+                throw new IllegalStateException("Cannot import the JSON files into database " + url);
+            }
+        }
+        return database;
+    }
+
+    /**
+     * Load all data from storage
      */
     private void loadAllData() throws FileNotFoundException {
-        assert dataManager != null;
-        books = dataManager.loadBooks();
-        members = dataManager.loadMembers();
-        transactions = dataManager.loadTransactions();
-        users = dataManager.loadUsers();
+        assert storage != null;
+        ExecutorService loader = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "library-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        BinarySnapshot snapshot;
+        try {
+            // Each loader fills only its own list and key map, so they run at once.
+            // Transactions always come from the transaction store (or transactions.json without one)
+            CompletableFuture<Void> transactionsLoaded = CompletableFuture.runAsync(LAZY_HISTORY
+                    ? () -> storage.loadActiveTransactions(this::addLoadedTransaction)
+                    : () -> storage.loadTransactions(this::addLoadedTransaction), loader);
+
+            snapshot = storage.loadSnapshot();
+            if (snapshot != null) {
+                runAll(loader, List.of(
+                        () -> snapshot.getBooks().forEach(this::addLoadedBook),
+                        () -> snapshot.getMembers().forEach(this::addLoadedMember),
+                        () -> snapshot.getUsers().forEach(this::addLoadedUser)));
+            } else {
+                runAll(loader, List.of(
+                        () -> storage.loadBooks(this::addLoadedBook),
+                        () -> storage.loadMembers(this::addLoadedMember),
+                        () -> storage.loadUsers(this::addLoadedUser)));
+            }
+            join(transactionsLoaded);
+
+            // Every secondary index is a separate structure, so they are built at once too
+            runAll(loader, List.of(
+                    () -> forEachIndexedBook(book -> titleIndex.add(book.getIsbn(), book.getTitle())),
+                    () -> forEachIndexedBook(book -> authorIndex.add(book.getIsbn(), book.getAuthor())),
+                    () -> forEachIndexedBook(book -> titleGrams.put(book.getIsbn(), book.getTitle())),
+                    () -> forEachIndexedBook(book -> authorGrams.put(book.getIsbn(), book.getAuthor())),
+                    () -> forEachIndexedBook(book -> isbnPrefixes.add(book.getIsbn())),
+                    () -> forEachIndexedBook(book -> titlePrefixes.add(book.getTitle())),
+                    () -> forEachIndexedBook(book -> authorPrefixes.add(book.getAuthor())),
+                    () -> members.stream()
+                            .filter(member -> membersByID.get(member.getMemberID()) == member)
+                            .forEach(member -> memberIDPrefixes.add(member.getMemberID())),
+                    () -> transactions.stream().filter(Transaction::isActive).forEach(this::indexActive)));
+        } finally {
+            loader.shutdown();
+        }
+
+        // Fold a replayed journal into the files at once, so it is never applied twice;
+        // otherwise refresh a missing or stale snapshot so the next startup can use it
+        if (replayJournal()) {
+            checkpoint();
+        } else {
+            if (snapshot == null) {
+                saveSnapshot();
+            }
+            archiveHistory();
+        }
+    }
+
+    /**
+     * Visit loaded books in list order, skipping later duplicates of an ISBN
+     */
+    private void forEachIndexedBook(Consumer<Book> action) {
+        for (Book book : books) {
+            if (booksByISBN.get(book.getIsbn()) == book) {
+                action.accept(book);
+            }
+        }
+    }
+
+    /**
+     * Run tasks on the executor and wait for all of them
+     */
+    private static void runAll(ExecutorService executor, List<Runnable> tasks) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(tasks.get(i), executor);
+        }
+        join(CompletableFuture.allOf(futures));
+    }
+
+    /**
+     * Wait for a load task, rethrowing its failure as is
+     */
+    private static void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Write the binary snapshot of the current state, if snapshots are on
+     */
+    private void saveSnapshot() {
+        if (storage.isSnapshotMode()) {
+            // Transactions live in the transaction store and are not copied into the snapshot
+            storage.saveSnapshot(new BinarySnapshot(books, members, List.of(), users));
+        }
+    }
+
+    // Loaded records are streamed straight into the lists and key maps; secondary
+    // indexes are built afterwards. The first record wins on duplicate keys, as the
+    // old linear scans did.
+
+    private void addLoadedBook(Book book) {
+        books.add(book);
+        booksByISBN.putIfAbsent(book.getIsbn(), book);
+    }
+
+    private void addLoadedMember(Member member) {
+        members.add(member);
+        membersByID.putIfAbsent(member.getMemberID(), member);
+    }
+
+    private void addLoadedTransaction(Transaction transaction) {
+        transactions.add(transaction);
+        if (transaction.getTransactionID() != null) {
+            transactionsByID.putIfAbsent(transaction.getTransactionID(), transaction);
+        }
+    }
+
+    private void addLoadedUser(User user) {
+        users.add(user);
+        usersByUsername.putIfAbsent(user.getUsername(), user);
+    }
+
+    /**
+     * Add a book's ISBN, title and author to the search and autocomplete indexes
+     */
+    private void indexText(Book book) {
+        titleIndex.add(book.getIsbn(), book.getTitle());
+        authorIndex.add(book.getIsbn(), book.getAuthor());
+        titleGrams.put(book.getIsbn(), book.getTitle());
+        authorGrams.put(book.getIsbn(), book.getAuthor());
+        isbnPrefixes.add(book.getIsbn());
+        titlePrefixes.add(book.getTitle());
+        authorPrefixes.add(book.getAuthor());
+    }
+
+    /**
+     * Remove a book's ISBN, title and author from the search and autocomplete indexes
+     */
+    private void unindexText(Book book) {
+        titleIndex.remove(book.getIsbn(), book.getTitle());
+        authorIndex.remove(book.getIsbn(), book.getAuthor());
+        titleGrams.remove(book.getIsbn());
+        authorGrams.remove(book.getIsbn());
+        isbnPrefixes.remove(book.getIsbn());
+        titlePrefixes.remove(book.getTitle());
+        authorPrefixes.remove(book.getAuthor());
+    }
+
+    /**
+     * Resolve a set of ISBNs to books
+     */
+    private ArrayList<Book> booksFor(Set<String> isbns) {
+        ArrayList<Book> result = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            Book book = booksByISBN.get(isbn);
+            if (book != null) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add an archived transaction to a history result, unless it is still resident
+     * (a crash while archiving can leave a transaction in both places)
+     */
+    private void addArchived(List<Transaction> result, Transaction transaction) {
+        if (findTransaction(transaction.getTransactionID()) == null) {
+            result.add(transaction);
+        }
+    }
+
+    /**
+     * Add an issued transaction to the resident list and its key map.
+     * Loans run alongside each other under the shared lock, so the list is appended to under its own monitor.
+     */
+    private void addResident(Transaction transaction) {
+        synchronized (transactions) {
+            transactions.add(transaction);
+        }
+        transactionsByID.put(transaction.getTransactionID(), transaction);
+    }
+
+    /**
+     * Copy the resident transactions, for walking them while loans run alongside
+     */
+    private ArrayList<Transaction> residentTransactions() {
+        return shared(() -> {
+            synchronized (transactions) {
+                return new ArrayList<>(transactions);
+            }
+        });
+    }
+
+    /**
+     * Add an active transaction to the per-member and per-ISBN indexes.
+     * The caller holds the member's stripe; the book's is taken here, only for the list change.
+     */
+    private void indexActive(Transaction transaction) {
+        if (transaction.getMemberID() != null) {
+            activeByMember.computeIfAbsent(transaction.getMemberID(), k -> new ArrayList<>()).add(transaction);
+        }
+        if (transaction.getIsbn() != null) {
+            locked(bookLocks.get(transaction.getIsbn()), () ->
+                    activeByISBN.computeIfAbsent(transaction.getIsbn(), k -> new ArrayList<>()).add(transaction));
+        }
+    }
+
+    /**
+     * Copy the active loans of one member or book; the caller holds that key's stripe
+     */
+    private static ArrayList<Transaction> copyActive(Map<String, ArrayList<Transaction>> index, String key) {
+        ArrayList<Transaction> active = key != null ? index.get(key) : null;
+        return active != null ? new ArrayList<>(active) : new ArrayList<>();
+    }
+
+    /**
+     * Remove a returned transaction from the per-member and per-ISBN indexes
+     */
+    private void unindexActive(Transaction transaction) {
+        removeActive(activeByMember, transaction.getMemberID(), transaction);
+        locked(bookLocks.get(transaction.getIsbn()), () -> {
+            removeActive(activeByISBN, transaction.getIsbn(), transaction);
+            return null;
+        });
+    }
+
+    private void removeActive(Map<String, ArrayList<Transaction>> index, String key, Transaction transaction) {
+        ArrayList<Transaction> active = key != null ? index.get(key) : null;
+        if (active == null) {
+            return;
+        }
+        // Transaction.equals compares against the ID, so remove by identity
+        active.removeIf(t -> t == transaction);
+        if (active.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Re-apply issues and returns logged after the last checkpoint.
+     * Books and members are as of that checkpoint, so every record is applied to them;
+     * transactions may already be in the store, so only missing changes are applied.
+     * @return true if the journal held any records
+     */
+    private boolean replayJournal() {
+        List<JournalEntry> journal = storage.loadJournal();
+        if (journal.isEmpty()) {
+            return false;
+        }
+        // The files are behind the journal until the next checkpoint
+        dirty.addAll(EnumSet.of(DataSet.BOOKS, DataSet.MEMBERS));
+
+        for (JournalEntry entry : journal) {
+            Transaction logged = entry.getTransaction();
+            Transaction transaction = findTransaction(logged.getTransactionID());
+            Book book = searchByISBN(logged.getIsbn());
+            Member member = findMemberByID(logged.getMemberID());
+
+            if (entry.isIssue()) {
+                if (transaction == null) {
+                    transactions.add(logged);
+                    transactionsByID.put(logged.getTransactionID(), logged);
+                    indexActive(logged);
+                    storeTransaction(JournalEntry.ISSUE, logged);
+                }
+                if (book != null) book.borrowCopy();
+                if (member != null) member.addBorrowedBook(logged.getIsbn());
+            } else if (entry.isReturn()) {
+                if (transaction == null) {
+                    transactions.add(logged);
+                    transactionsByID.put(logged.getTransactionID(), logged);
+                    storeTransaction(JournalEntry.ISSUE, logged);
+                } else if (transaction.isActive()) {
+                    transaction.markAsReturned(logged.getReturnDate(), logged.getFine());
+                    unindexActive(transaction);
+                    storeTransaction(JournalEntry.RETURN, transaction);
+                }
+                if (book != null) book.returnCopy();
+                if (member != null) member.removeBorrowedBook(logged.getIsbn());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find transaction by ID
+     */
+    private Transaction findTransaction(String transactionID) {
+        return transactionID != null ? transactionsByID.get(transactionID) : null;
     }
 
     /**
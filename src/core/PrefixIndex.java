@@ -0,0 +1,85 @@
+package core;
+
+import java.util.*;
+
+/**
+ * Sorted prefix index for autocomplete.
+ * Values are kept in a TreeMap under their lower-cased form, so the first K
+ * completions of a prefix are a range walk of O(log n + K). Values differing only
+ * in case share a key but are each kept and suggested.
+ */
+public class PrefixIndex {
+
+    // Fields
+    private TreeMap<String, TreeMap<String, Integer>> entries; // lower-cased value -> original values and counts
+
+    // Constructor
+    public PrefixIndex() {
+        entries = new TreeMap<>();
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Add a value; duplicates are counted so removing one copy keeps the others
+     */
+    public void add(String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        entries.computeIfAbsent(normalize(value), k -> new TreeMap<>()).merge(value, 1, Integer::sum);
+    }
+
+    /**
+     * Remove one occurrence of a value
+     */
+    public void remove(String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String key = normalize(value);
+        TreeMap<String, Integer> originals = entries.get(key);
+        if (originals == null) {
+            return;
+        }
+        originals.computeIfPresent(value, (original, count) -> count > 1 ? count - 1 : null);
+        if (originals.isEmpty()) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drop all values
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Get up to limit values starting with prefix (case-insensitive), in sorted order
+     */
+    public List<String> complete(String prefix, int limit) {
+        ArrayList<String> result = new ArrayList<>();
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return result;
+        }
+        String from = normalize(prefix);
+        for (TreeMap<String, Integer> originals : entries.subMap(from, from + Character.MAX_VALUE).values()) {
+            for (String value : originals.keySet()) {
+                result.add(value);
+                if (result.size() >= limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,11 @@
+package core;
+
+/**
+ * How title and author searches match the query
+ */
+public enum SearchMode {
+    // Case-insensitive substring match, "arry" finds "Harry" (trigram index)
+    SUBSTRING,
+    // Every query word must appear, the last one may be partial (word index)
+    WORDS
+}
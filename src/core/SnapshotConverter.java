@@ -0,0 +1,71 @@
+package core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line converter between the JSON data files and the binary snapshot.
+ * Usage: SnapshotConverter to-binary | to-json  (run from the application directory)
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 1 || !(args[0].equals("to-binary") || args[0].equals("to-json"))) {
+            System.err.println("Usage: SnapshotConverter to-binary | to-json");
+            System.exit(2);
+        }
+
+        try {
+            convert(args[0]);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void convert(String direction) throws IOException {
+        DataManager dataManager = new DataManager();
+        if (direction.equals("to-binary")) {
+            BinarySnapshot snapshot = new BinarySnapshot(dataManager.loadBooks(), dataManager.loadMembers(),
+                    loadHistory(dataManager), dataManager.loadUsers());
+            if (!dataManager.saveSnapshot(snapshot)) {
+                System.exit(1);
+            }
+            System.out.println("Wrote snapshot: " + summary(snapshot) + ", "
+                    + snapshot.getTransactions().size() + " transactions");
+        } else {
+            BinarySnapshot snapshot = dataManager.readSnapshot();
+            boolean saved = dataManager.saveBooks(snapshot.getBooks());
+            saved &= dataManager.saveMembers(snapshot.getMembers());
+            // The application keeps transactions in the transaction store and archive, not in its snapshots
+            List<Transaction> transactions = snapshot.getTransactions();
+            if (transactions.isEmpty()) {
+                transactions = loadHistory(dataManager);
+            }
+            saved &= dataManager.saveTransactions(transactions);
+            saved &= dataManager.saveUsers(new ArrayList<>(snapshot.getUsers()));
+            saved &= dataManager.flush();
+            if (!saved) {
+                System.exit(1);
+            }
+            System.out.println("Wrote JSON files: " + summary(snapshot) + ", " + transactions.size() + " transactions");
+        }
+    }
+
+    /**
+     * Archived and live transactions, oldest archive month first
+     */
+    private static ArrayList<Transaction> loadHistory(DataManager dataManager) throws IOException {
+        ArrayList<Transaction> history = new ArrayList<>();
+        dataManager.loadArchivedTransactions(history::add);
+        history.addAll(dataManager.loadTransactions());
+        return history;
+    }
+
+    private static String summary(BinarySnapshot snapshot) {
+        return snapshot.getBooks().size() + " books, "
+                + snapshot.getMembers().size() + " members, "
+                + snapshot.getUsers().size() + " users";
+    }
+}
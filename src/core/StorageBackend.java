@@ -0,0 +1,308 @@
+package core;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Where LibrarySystem keeps its books, members, transactions and users.
+ *
+ * Every backend loads and saves whole collections. The journal, transaction
+ * store, archive, snapshot and row updates are optional: their default methods
+ * describe a backend without the feature, and LibrarySystem only uses a feature
+ * the backend reports.
+ */
+public interface StorageBackend {
+
+    // ==================== LOAD METHODS ====================
+
+    /**
+     * Stream stored books into sink, in stored order
+     */
+    void loadBooks(Consumer<Book> sink);
+
+    /**
+     * Stream stored members into sink, in stored order
+     */
+    void loadMembers(Consumer<Member> sink);
+
+    /**
+     * Stream stored (non-archived) transactions into sink, in stored order
+     */
+    void loadTransactions(Consumer<Transaction> sink);
+
+    /**
+     * Stream only the active transactions; backends without a cheaper way filter the full load
+     */
+    default void loadActiveTransactions(Consumer<Transaction> sink) {
+        loadTransactions(transaction -> {
+            if (transaction.isActive()) {
+                sink.accept(transaction);
+            }
+        });
+    }
+
+    /**
+     * Stream stored users into sink, in stored order
+     */
+    void loadUsers(Consumer<User> sink);
+
+    // ==================== SAVE METHODS ====================
+
+    /**
+     * Replace the stored books with the list
+     */
+    boolean saveBooks(List<Book> books);
+
+    /**
+     * Replace the stored members with the list
+     */
+    boolean saveMembers(List<Member> members);
+
+    /**
+     * Replace the stored transactions with the list
+     */
+    boolean saveTransactions(List<Transaction> transactions);
+
+    /**
+     * Replace the stored users with the list
+     */
+    boolean saveUsers(List<User> users);
+
+    /**
+     * Get the stored size of a collection in bytes, 0 if unknown
+     */
+    default long getStoredSize(DataSet set) {
+        return 0;
+    }
+
+    /**
+     * Make every save so far durable
+     * @return true if everything saved so far is stored
+     */
+    default boolean flush() {
+        return true;
+    }
+
+    /**
+     * Flush and release the storage
+     */
+    default void shutdown() {
+        flush();
+    }
+
+    // ==================== ROW UPDATES (optional) ====================
+
+    /**
+     * Check if single records can be written without saving their whole collection.
+     * Backends without row updates return false from the methods below, and the
+     * caller saves the whole collection instead.
+     */
+    default boolean supportsRowUpdates() {
+        return false;
+    }
+
+    /**
+     * Insert or update one book
+     */
+    default boolean saveBook(Book book) {
+        return false;
+    }
+
+    /**
+     * Delete one book
+     */
+    default boolean deleteBook(String isbn) {
+        return false;
+    }
+
+    /**
+     * Insert or update one member, borrowed books included
+     */
+    default boolean saveMember(Member member) {
+        return false;
+    }
+
+    /**
+     * Delete one member
+     */
+    default boolean deleteMember(String memberID) {
+        return false;
+    }
+
+    /**
+     * Insert or update one user
+     */
+    default boolean saveUser(User user) {
+        return false;
+    }
+
+    /**
+     * Store an issue or return at once: the transaction, its book and its member.
+     * Either all three are stored or none.
+     */
+    default boolean saveLoan(Transaction transaction, Book book, Member member) {
+        return false;
+    }
+
+    // ==================== JOURNAL (optional) ====================
+
+    /**
+     * Check if issue/return are written to a journal instead of rewriting collections
+     */
+    default boolean isJournalMode() {
+        return false;
+    }
+
+    /**
+     * Number of records appended since the last checkpoint
+     */
+    default int getJournalSize() {
+        return 0;
+    }
+
+    /**
+     * Check if the journal holds records not yet folded into the collections
+     */
+    default boolean hasPendingJournal() {
+        return false;
+    }
+
+    /**
+     * Append one record to the journal
+     * @return true if the record is durable
+     */
+    default boolean appendToJournal(JournalEntry entry) {
+        return false;
+    }
+
+    /**
+     * Load all journal records written since the last checkpoint
+     */
+    default List<JournalEntry> loadJournal() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Discard the journal after its records were saved
+     */
+    default boolean clearJournal() {
+        return true;
+    }
+
+    // ==================== TRANSACTION STORE (optional) ====================
+
+    /**
+     * Check if transactions are stored one by one rather than saved as a collection
+     */
+    default boolean hasTransactionStore() {
+        return false;
+    }
+
+    /**
+     * Store a new transaction
+     * @return false if there is no store or the write failed
+     */
+    default boolean appendTransaction(Transaction transaction) {
+        return false;
+    }
+
+    /**
+     * Update a stored transaction after a return
+     * @return false if there is no store or the transaction is not in it
+     */
+    default boolean updateTransaction(Transaction transaction) {
+        return false;
+    }
+
+    /**
+     * Stop using the store, after the transactions were saved as a collection instead
+     */
+    default void discardTransactionStore() {
+    }
+
+    /**
+     * Keep only the given transactions in the store (after archiving the rest)
+     */
+    default boolean compactTransactions(List<Transaction> remaining) {
+        return false;
+    }
+
+    // ==================== ARCHIVE (optional) ====================
+
+    /**
+     * Move stored transactions accepted by archivable into the archive
+     * @return the archived transactions, empty if nothing was moved
+     */
+    default List<Transaction> archiveStoredTransactions(Predicate<Transaction> archivable) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Add closed transactions to the archive
+     * @return false if there is no archive or the write failed
+     */
+    default boolean archiveTransactions(List<Transaction> closed) {
+        return false;
+    }
+
+    /**
+     * Get the months with archived transactions, oldest first
+     */
+    default List<YearMonth> getArchiveMonths() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Stream the archived transactions issued in one month
+     */
+    default void loadArchivedTransactions(YearMonth month, Consumer<Transaction> sink) {
+    }
+
+    /**
+     * Stream a member's archived transactions, optionally only for one ISBN
+     */
+    default void loadArchivedTransactions(String memberID, String isbn, Consumer<Transaction> sink) {
+    }
+
+    /**
+     * Check if the archive holds a loan of isbn to memberID
+     */
+    default boolean hasArchivedLoan(String memberID, String isbn) {
+        return false;
+    }
+
+    /**
+     * Iterate every archived transaction, oldest first
+     */
+    default Iterator<Transaction> archiveIterator() {
+        return Collections.emptyIterator();
+    }
+
+    // ==================== SNAPSHOT (optional) ====================
+
+    /**
+     * Check if a binary snapshot is read and written
+     */
+    default boolean isSnapshotMode() {
+        return false;
+    }
+
+    /**
+     * Load the binary snapshot if it is current
+     * @return the snapshot, or null if the collections should be loaded instead
+     */
+    default BinarySnapshot loadSnapshot() {
+        return null;
+    }
+
+    /**
+     * Write the binary snapshot
+     */
+    default boolean saveSnapshot(BinarySnapshot snapshot) {
+        return false;
+    }
+}
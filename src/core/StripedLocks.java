@@ -0,0 +1,38 @@
+package core;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed number of locks shared out by key, so work on different keys
+ * usually runs in parallel without keeping a lock per key.
+ * Two keys may share a stripe; the locks are reentrant, so taking the
+ * same stripe twice is safe.
+ */
+public class StripedLocks {
+
+    // Fields
+    private final ReentrantLock[] stripes;
+
+    // Constructor
+    public StripedLocks(int count) {
+        // Round up to a power of two so a stripe is picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, count - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Get the lock guarding key (null shares a stripe like any other key)
+     */
+    public ReentrantLock get(String key) {
+        int hash = key == null ? 0 : key.hashCode();
+        // Spread the high bits down, as HashMap does, before masking
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
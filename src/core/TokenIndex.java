@@ -0,0 +1,127 @@
+package core;
+
+import java.util.*;
+
+/**
+ * Inverted index from lower-case words to the keys (ISBNs) of the texts containing them.
+ * Multi-word queries are answered by intersecting posting lists; the last query
+ * word may be a prefix so partially typed words still match.
+ */
+public class TokenIndex {
+
+    // Fields
+    private TreeMap<String, LinkedHashSet<String>> postings;
+
+    // Constructor
+    public TokenIndex() {
+        postings = new TreeMap<>();
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Index every word of text under key
+     */
+    public void add(String key, String text) {
+        for (String token : tokenize(text)) {
+            postings.computeIfAbsent(token, k -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Remove key from the postings of every word of text
+     */
+    public void remove(String key, String text) {
+        for (String token : tokenize(text)) {
+            LinkedHashSet<String> keys = postings.get(token);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop all postings
+     */
+    public void clear() {
+        postings.clear();
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Find keys whose text contains every query word
+     * @return matching keys, empty if any word is unknown
+     */
+    public Set<String> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+
+        // Exact words first, the last word as a prefix
+        ArrayList<Set<String>> lists = new ArrayList<>();
+        for (int i = 0; i < tokens.size() - 1; i++) {
+            Set<String> keys = postings.get(tokens.get(i));
+            if (keys == null) {
+                return new LinkedHashSet<>();
+            }
+            lists.add(keys);
+        }
+        Set<String> last = prefixPostings(tokens.get(tokens.size() - 1));
+        if (last.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        lists.add(last);
+
+        // Walk the shortest list and probe the others
+        lists.sort(Comparator.comparingInt(Set::size));
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+        for (String key : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(key);
+            }
+            if (inAll) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Union of the postings of every word starting with prefix
+     */
+    private Set<String> prefixPostings(String prefix) {
+        SortedMap<String, LinkedHashSet<String>> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.size() == 1) {
+            return range.values().iterator().next();
+        }
+        LinkedHashSet<String> keys = new LinkedHashSet<>();
+        for (LinkedHashSet<String> postingList : range.values()) {
+            keys.addAll(postingList);
+        }
+        return keys;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Split text into lower-case words of letters and digits
+     */
+    public static List<String> tokenize(String text) {
+        ArrayList<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
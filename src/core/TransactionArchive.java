@@ -0,0 +1,570 @@
+package core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Archive of closed transactions, one file per month of issue date ("2024-05.arc").
+ *
+ * A month file holds its transactions sorted by member and ISBN, in blocks of up
+ * to BLOCK_RECORDS records compressed with Deflater. The footer is a sparse index
+ * with one entry per block: position, sizes, first and last memberID, and a Bloom
+ * filter of the block's memberIDs, ISBNs and member/ISBN pairs. Member and
+ * member/ISBN queries read only the footers (cached after first use) and inflate
+ * only the blocks whose key range and filter can match.
+ *
+ * Layout: magic "LMSA", version, blocks, footer, footer position (long), magic
+ */
+public class TransactionArchive {
+
+    private static final int MAGIC = 0x4C4D5341; // "LMSA"
+    private static final int VERSION = 1;
+    private static final int TRAILER_SIZE = 12;
+    private static final String ARCHIVE_SUFFIX = ".arc";
+    private static final int BLOCK_RECORDS = 128;
+    private static final int BLOOM_BITS = 4096;
+    private static final int BLOOM_HASHES = 5;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    // Sort order inside a month file; the sparse index relies on it
+    private static final Comparator<Transaction> ORDER = Comparator
+            .comparing(Transaction::getMemberID, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Transaction::getIsbn, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Transaction::getIssueDate, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()));
+
+    // Fields
+    private final Path directory;
+    private final HashMap<YearMonth, List<Block>> indexes; // month -> block index, read on first use
+    private long blocksInflated;
+
+    // Constructor
+    public TransactionArchive(Path directory) {
+        this.directory = directory;
+        this.indexes = new HashMap<>();
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Add transactions to the files of their issue months, skipping IDs already archived.
+     * Each touched month is rewritten to a temp file, forced and renamed into place.
+     * The renames are forced to disk before this returns, so the caller may then drop
+     * the transactions from live storage.
+     */
+    public synchronized void add(List<Transaction> transactions) throws IOException {
+        TreeMap<YearMonth, ArrayList<Transaction>> byMonth = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            byMonth.computeIfAbsent(YearMonth.from(transaction.getIssueDate()), k -> new ArrayList<>())
+                    .add(transaction);
+        }
+
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectories(directory);
+            syncDirectory(directory.toAbsolutePath().getParent());
+        }
+        for (Map.Entry<YearMonth, ArrayList<Transaction>> month : byMonth.entrySet()) {
+            merge(month.getKey(), month.getValue());
+        }
+        syncDirectory(directory);
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Get the months that have an archive file, oldest first
+     */
+    public synchronized List<YearMonth> months() throws IOException {
+        return listMonths();
+    }
+
+    /**
+     * Stream the transactions issued in one month
+     */
+    public synchronized void forEach(YearMonth month, Consumer<Transaction> sink) throws IOException {
+        scanMonth(month, null, null, transaction -> {
+            sink.accept(transaction);
+            return true;
+        });
+    }
+
+    /**
+     * Stream every archived transaction, oldest month first
+     */
+    public synchronized void forEach(Consumer<Transaction> sink) throws IOException {
+        for (YearMonth month : months()) {
+            forEach(month, sink);
+        }
+    }
+
+    /**
+     * Stream the archived transactions of a member, optionally only for one ISBN.
+     * Only blocks that can hold a match are inflated.
+     */
+    public synchronized void forEachMatching(String memberID, String isbn, Consumer<Transaction> sink)
+            throws IOException {
+        for (YearMonth month : months()) {
+            scanMonth(month, memberID, isbn, transaction -> {
+                sink.accept(transaction);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Check if a member ever borrowed a book, stopping at the first match
+     */
+    public synchronized boolean contains(String memberID, String isbn) throws IOException {
+        for (YearMonth month : months()) {
+            if (!scanMonth(month, memberID, isbn, transaction -> false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Iterate every archived transaction, oldest month first, inflating one block at a time.
+     * next() throws UncheckedIOException if a file cannot be read and
+     * ConcurrentModificationException if a month is rewritten during iteration.
+     */
+    public Iterator<Transaction> iterator() throws IOException {
+        List<YearMonth> months = months();
+        return new Iterator<>() {
+            private int month = -1;
+            private List<Block> blocks = List.of();
+            private int block;
+            private Iterator<Transaction> page = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext()) {
+                    if (!nextPage()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+
+            private boolean nextPage() {
+                synchronized (TransactionArchive.this) {
+                    try {
+                        while (block >= blocks.size()) {
+                            if (++month >= months.size()) {
+                                return false;
+                            }
+                            blocks = index(months.get(month));
+                            block = 0;
+                        }
+                        if (indexes.get(months.get(month)) != blocks) {
+                            throw new ConcurrentModificationException("Archive month rewritten during iteration");
+                        }
+                        try (FileChannel channel = FileChannel.open(archivePath(months.get(month)),
+                                StandardOpenOption.READ)) {
+                            page = readBlock(channel, blocks.get(block++)).iterator();
+                        }
+                        return true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Number of blocks decompressed so far, for judging how selective lookups are
+     */
+    public synchronized long getBlocksInflated() {
+        return blocksInflated;
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Visit the transactions of a month that match memberID and isbn (null matches any)
+     * @return false if the visitor stopped the scan
+     */
+    private boolean scanMonth(YearMonth month, String memberID, String isbn,
+                              Predicate<Transaction> visitor) throws IOException {
+        List<Block> blocks = index(month);
+        if (blocks.isEmpty()) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(archivePath(month), StandardOpenOption.READ)) {
+            for (Block block : blocks) {
+                if (!block.mayContain(memberID, isbn)) {
+                    continue;
+                }
+                for (Transaction transaction : readBlock(channel, block)) {
+                    if ((memberID == null || memberID.equals(transaction.getMemberID()))
+                            && (isbn == null || isbn.equals(transaction.getIsbn()))
+                            && !visitor.test(transaction)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the block index of a month, reading the file's footer on first use
+     */
+    private List<Block> index(YearMonth month) throws IOException {
+        List<Block> blocks = indexes.get(month);
+        if (blocks != null) {
+            return blocks;
+        }
+        Path file = archivePath(month);
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = read(channel, 0, 8);
+            if (size < 8 + TRAILER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a transaction archive: " + file);
+            }
+            ByteBuffer trailer = read(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            long footer = trailer.getLong();
+            if (trailer.getInt() != MAGIC || footer < 8 || footer > size - TRAILER_SIZE) {
+                throw new IOException("Corrupt transaction archive footer: " + file);
+            }
+
+            ByteBuffer in = read(channel, footer, (int) (size - TRAILER_SIZE - footer));
+            int count = in.getInt();
+            blocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long position = in.getLong();
+                int compressedSize = in.getInt();
+                int rawSize = in.getInt();
+                String firstMember = readString(in);
+                String lastMember = readString(in);
+                int hashes = in.getInt();
+                long[] bits = new long[in.getInt()];
+                for (int j = 0; j < bits.length; j++) {
+                    bits[j] = in.getLong();
+                }
+                blocks.add(new Block(position, compressedSize, rawSize, firstMember, lastMember,
+                        new BloomFilter(bits, hashes)));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt transaction archive: " + file, e);
+        }
+        indexes.put(month, blocks);
+        return blocks;
+    }
+
+    private ArrayList<Transaction> readBlock(FileChannel channel, Block block) throws IOException {
+        ByteBuffer compressed = read(channel, block.position, block.compressedSize);
+        byte[] raw = new byte[block.rawSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array());
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, inflated, raw.length - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != raw.length) {
+                throw new IOException("Truncated archive block");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+        blocksInflated++;
+
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        try {
+            while (in.hasRemaining()) {
+                transactions.add(readTransaction(in));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt archive block", e);
+        }
+        return transactions;
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Rewrite a month with its archived transactions plus the new ones, sorted
+     */
+    private void merge(YearMonth month, List<Transaction> added) throws IOException {
+        LinkedHashMap<String, Transaction> byID = new LinkedHashMap<>();
+        scanMonth(month, null, null, transaction -> {
+            byID.putIfAbsent(transaction.getTransactionID(), transaction);
+            return true;
+        });
+        int before = byID.size();
+        for (Transaction transaction : added) {
+            byID.putIfAbsent(transaction.getTransactionID(), transaction);
+        }
+        if (byID.size() == before) {
+            return;
+        }
+
+        ArrayList<Transaction> sorted = new ArrayList<>(byID.values());
+        sorted.sort(ORDER);
+        write(month, sorted);
+    }
+
+    private void write(YearMonth month, List<Transaction> sorted) throws IOException {
+        Path file = archivePath(month);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ArrayList<Block> blocks = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long position = 8;
+
+            for (int start = 0; start < sorted.size(); start += BLOCK_RECORDS) {
+                List<Transaction> records = sorted.subList(start, Math.min(start + BLOCK_RECORDS, sorted.size()));
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                DataOutputStream rawOut = new DataOutputStream(raw);
+                BloomFilter filter = new BloomFilter(BLOOM_BITS, BLOOM_HASHES);
+                for (Transaction transaction : records) {
+                    writeTransaction(rawOut, transaction);
+                    if (transaction.getMemberID() != null) {
+                        filter.add(transaction.getMemberID());
+                    }
+                    if (transaction.getIsbn() != null) {
+                        filter.add(transaction.getIsbn());
+                    }
+                    filter.add(pairKey(transaction.getMemberID(), transaction.getIsbn()));
+                }
+                rawOut.flush();
+
+                byte[] compressed = deflate(raw.toByteArray());
+                out.write(compressed);
+                blocks.add(new Block(position, compressed.length, raw.size(),
+                        records.get(0).getMemberID(), records.get(records.size() - 1).getMemberID(), filter));
+                position += compressed.length;
+            }
+
+            long footer = position;
+            out.writeInt(blocks.size());
+            for (Block block : blocks) {
+                out.writeLong(block.position);
+                out.writeInt(block.compressedSize);
+                out.writeInt(block.rawSize);
+                writeString(out, block.firstMember);
+                writeString(out, block.lastMember);
+                out.writeInt(block.filter.getHashes());
+                long[] bits = block.filter.getBits();
+                out.writeInt(bits.length);
+                for (long word : bits) {
+                    out.writeLong(word);
+                }
+            }
+            out.writeLong(footer);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexes.put(month, blocks);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Force a directory's entries (new files, renames) to disk where the platform allows it
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the month files themselves are already forced
+        }
+    }
+
+    private List<YearMonth> listMonths() throws IOException {
+        ArrayList<YearMonth> months = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return months;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ARCHIVE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    months.add(YearMonth.parse(name.substring(0, name.length() - ARCHIVE_SUFFIX.length())));
+                } catch (DateTimeParseException e) {
+                    // Not a month file written by this class
+                }
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    private Path archivePath(YearMonth month) {
+        return directory.resolve(month + ARCHIVE_SUFFIX);
+    }
+
+    private static String pairKey(String memberID, String isbn) {
+        return memberID + '\u0000' + isbn;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of archive file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeTransaction(DataOutputStream out, Transaction transaction) throws IOException {
+        writeString(out, transaction.getTransactionID());
+        writeString(out, transaction.getMemberID());
+        writeString(out, transaction.getMemberName());
+        writeString(out, transaction.getIsbn());
+        writeString(out, transaction.getBookTitle());
+        out.writeInt(epochDay(transaction.getIssueDate()));
+        out.writeInt(epochDay(transaction.getDueDate()));
+        out.writeInt(epochDay(transaction.getReturnDate()));
+        out.writeDouble(transaction.getFine());
+        out.writeBoolean(transaction.isActive());
+    }
+
+    private static Transaction readTransaction(ByteBuffer in) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionID(readString(in));
+        transaction.setMemberID(readString(in));
+        transaction.setMemberName(readString(in));
+        transaction.setIsbn(readString(in));
+        transaction.setBookTitle(readString(in));
+        transaction.setIssueDate(date(in.getInt()));
+        transaction.setDueDate(date(in.getInt()));
+        transaction.setReturnDate(date(in.getInt()));
+        transaction.setFine(in.getDouble());
+        transaction.setActive(in.get() != 0);
+        return transaction;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), size, StandardCharsets.UTF_8);
+        in.position(in.position() + size);
+        return value;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Sparse index entry: where a block is and which keys it may hold
+     */
+    private static class Block {
+        private final long position;
+        private final int compressedSize;
+        private final int rawSize;
+        private final String firstMember;
+        private final String lastMember;
+        private final BloomFilter filter;
+
+        private Block(long position, int compressedSize, int rawSize,
+                      String firstMember, String lastMember, BloomFilter filter) {
+            this.position = position;
+            this.compressedSize = compressedSize;
+            this.rawSize = rawSize;
+            this.firstMember = firstMember;
+            this.lastMember = lastMember;
+            this.filter = filter;
+        }
+
+        /**
+         * False only if no record in the block can match (null matches any)
+         */
+        private boolean mayContain(String memberID, String isbn) {
+            if (memberID != null) {
+                // Blocks are sorted by member, nulls first
+                if (firstMember != null && memberID.compareTo(firstMember) < 0) {
+                    return false;
+                }
+                if (lastMember == null || memberID.compareTo(lastMember) > 0) {
+                    return false;
+                }
+            }
+            if (memberID != null && isbn != null) {
+                return filter.mightContain(pairKey(memberID, isbn));
+            }
+            if (memberID != null) {
+                return filter.mightContain(memberID);
+            }
+            return isbn == null || filter.mightContain(isbn);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/**
+ * Append-only, memory-mapped segment file of transactions.
+ *
+ * Layout:
+ *   header : magic "LMST", version, end offset of the last complete entry (long)
+ *   entry  : length of the rest of the entry (int)
+ *            status  - active (byte), return epoch-day (int), fine (double)
+ *            fixed   - issue epoch-day (int), due epoch-day (int)
+ *            strings - transactionID, memberID, memberName, isbn, bookTitle,
+ *                      each a UTF-8 byte length (-1 for null) and the bytes
+ *
+ * New transactions are appended after the end offset, which is only advanced
+ * once the entry is fully written and forced to disk. A return rewrites the status
+ * area of its entry in place, so neither operation touches the rest of the history.
+ * Writes land in the page cache; force() makes them durable. On open, anything
+ * after the last complete entry is cut off.
+ */
+public class TransactionStore implements Closeable {
+
+    private static final int MAGIC = 0x4C4D5354; // "LMST"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int END_OFFSET = 8;
+    private static final int STATUS_SIZE = 1 + 4 + 8;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 1 << 20;
+
+    // Fields
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private MappedByteBuffer map;
+    private int end;
+    private HashMap<String, Integer> offsets; // transactionID -> entry offset
+
+    // Constructor - use open() or openReadOnly()
+    private TransactionStore(FileChannel channel, boolean readOnly) {
+        this.channel = channel;
+        this.readOnly = readOnly;
+        this.offsets = new HashMap<>();
+    }
+
+    /**
+     * Open or create a store file and index its entries
+     * @throws IOException if the file cannot be mapped or is not a transaction store
+     */
+    public static TransactionStore open(Path path) throws IOException {
+        return open(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), false);
+    }
+
+    /**
+     * Open an existing store file for reading only: nothing is written to it,
+     * and a torn tail is skipped rather than cut off. Updates are not allowed.
+     * @throws IOException if the file does not exist or is not a transaction store
+     */
+    public static TransactionStore openReadOnly(Path path) throws IOException {
+        return open(FileChannel.open(path, StandardOpenOption.READ), true);
+    }
+
+    private static TransactionStore open(FileChannel channel, boolean readOnly) throws IOException {
+        TransactionStore store = new TransactionStore(channel, readOnly);
+        try {
+            store.init();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Corrupt transaction store", e);
+        }
+        return store;
+    }
+
+    private void init() throws IOException {
+        boolean created = channel.size() == 0;
+        if (readOnly) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a transaction store");
+            }
+            map(channel.size());
+        } else {
+            map(Math.max(MIN_CAPACITY, channel.size()));
+        }
+
+        if (created) {
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            setEnd(HEADER_SIZE);
+            return;
+        }
+
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("Not a transaction store");
+        }
+
+        // An end offset past the mapping cannot be trusted: scan as far as the entries go
+        long storedEnd = map.getLong(END_OFFSET);
+        int limit = storedEnd >= HEADER_SIZE && storedEnd <= map.capacity() ? (int) storedEnd : map.capacity();
+
+        // Index entry offsets by transaction ID, reading only the ID of each entry
+        int offset = HEADER_SIZE;
+        while (offset < limit) {
+            int length = map.getInt(offset);
+            if (length <= 0 || offset + 4L + length > limit || !isComplete(offset, length)) {
+                break;
+            }
+            int idPosition = offset + 4 + STATUS_SIZE + 8;
+            offsets.put(readString(idPosition), offset);
+            offset += 4 + length;
+        }
+
+        if (offset != storedEnd && !readOnly) {
+            System.err.println("Transaction store truncated to its last complete entry at " + offset);
+            setEnd(offset);
+            map.force();
+        } else {
+            end = offset;
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Number of transactions in the store
+     */
+    public synchronized int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Check if a transaction is in the store
+     */
+    public synchronized boolean contains(String transactionID) {
+        return offsets.containsKey(transactionID);
+    }
+
+    /**
+     * Decode every transaction in append order
+     */
+    public synchronized void forEach(Consumer<Transaction> sink) {
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            sink.accept(readEntry(offset));
+            offset += 4 + map.getInt(offset);
+        }
+    }
+
+    /**
+     * Decode only the active transactions, skipping closed entries by their status byte
+     */
+    public synchronized void forEachActive(Consumer<Transaction> sink) {
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            if (map.get(offset + 4) != 0) {
+                sink.accept(readEntry(offset));
+            }
+            offset += 4 + map.getInt(offset);
+        }
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Append a transaction
+     * @return false if a transaction with the same ID is already stored
+     */
+    public synchronized boolean append(Transaction transaction) throws IOException {
+        if (offsets.containsKey(transaction.getTransactionID())) {
+            return false;
+        }
+
+        byte[][] strings = {
+                utf8(transaction.getTransactionID()),
+                utf8(transaction.getMemberID()),
+                utf8(transaction.getMemberName()),
+                utf8(transaction.getIsbn()),
+                utf8(transaction.getBookTitle())
+        };
+        int length = STATUS_SIZE + 8;
+        for (byte[] string : strings) {
+            length += 4 + (string == null ? 0 : string.length);
+        }
+        ensureCapacity((long) end + 4 + length);
+
+        int offset = end;
+        map.putInt(offset, length);
+        writeStatus(offset, transaction);
+        int position = offset + 4 + STATUS_SIZE;
+        map.putInt(position, epochDay(transaction.getIssueDate()));
+        map.putInt(position + 4, epochDay(transaction.getDueDate()));
+        position += 8;
+        for (byte[] string : strings) {
+            if (string == null) {
+                map.putInt(position, -1);
+                position += 4;
+            } else {
+                map.putInt(position, string.length);
+                map.put(position + 4, string);
+                position += 4 + string.length;
+            }
+        }
+
+        // Publish the entry only once it is complete and on disk, so the end offset never covers a torn entry
+        map.force(offset, 4 + length);
+        setEnd(offset + 4 + length);
+        offsets.put(transaction.getTransactionID(), offset);
+        return true;
+    }
+
+    /**
+     * Rewrite the status (active, return date, fine) of a stored transaction in place
+     * @return false if the transaction is not in the store
+     */
+    public synchronized boolean updateStatus(Transaction transaction) {
+        Integer offset = offsets.get(transaction.getTransactionID());
+        if (offset == null) {
+            return false;
+        }
+        writeStatus(offset, transaction);
+        return true;
+    }
+
+    /**
+     * Flush written entries and status updates to disk
+     */
+    public synchronized void force() {
+        map.force();
+    }
+
+    /**
+     * Force pending writes and release the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!readOnly) {
+            map.force();
+        }
+        channel.close();
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void writeStatus(int offset, Transaction transaction) {
+        int position = offset + 4;
+        map.put(position, (byte) (transaction.isActive() ? 1 : 0));
+        map.putInt(position + 1, epochDay(transaction.getReturnDate()));
+        map.putDouble(position + 5, transaction.getFine());
+    }
+
+    /**
+     * Check that an entry's strings fit inside its length
+     */
+    private boolean isComplete(int offset, int length) {
+        int entryEnd = offset + 4 + length;
+        int position = offset + 4 + STATUS_SIZE + 8;
+        for (int i = 0; i < 5; i++) {
+            if (position + 4 > entryEnd) {
+                return false;
+            }
+            int size = map.getInt(position);
+            if (size < -1 || (long) position + 4 + Math.max(size, 0) > entryEnd) {
+                return false;
+            }
+            position += 4 + Math.max(size, 0);
+        }
+        return position == entryEnd;
+    }
+
+    private Transaction readEntry(int offset) {
+        int position = offset + 4;
+        Transaction transaction = new Transaction();
+        transaction.setActive(map.get(position) != 0);
+        transaction.setReturnDate(date(map.getInt(position + 1)));
+        transaction.setFine(map.getDouble(position + 5));
+        position += STATUS_SIZE;
+        transaction.setIssueDate(date(map.getInt(position)));
+        transaction.setDueDate(date(map.getInt(position + 4)));
+        position += 8;
+
+        String[] strings = new String[5];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(position);
+            int size = map.getInt(position);
+            position += 4 + Math.max(size, 0);
+        }
+        transaction.setTransactionID(strings[0]);
+        transaction.setMemberID(strings[1]);
+        transaction.setMemberName(strings[2]);
+        transaction.setIsbn(strings[3]);
+        transaction.setBookTitle(strings[4]);
+        return transaction;
+    }
+
+    private String readString(int position) {
+        int size = map.getInt(position);
+        if (size < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[size];
+        map.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void setEnd(int end) {
+        this.end = end;
+        map.putLong(END_OFFSET, end);
+    }
+
+    /**
+     * Remap with at least double the capacity when an append would not fit
+     */
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= map.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Transaction store is full");
+        }
+        long capacity = map.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        capacity = Math.min(capacity, Integer.MAX_VALUE);
+        map.force();
+        map(capacity);
+    }
+
+    private void map(long capacity) throws IOException {
+        map = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -0,0 +1,126 @@
+package core;
+
+import java.util.*;
+
+/**
+ * Substring index over short texts keyed by ISBN.
+ * Every three-character window of the lower-cased text is indexed; a query is
+ * narrowed to the keys holding all of its trigrams and then verified with
+ * String.contains, so results are exactly those of a case-insensitive scan.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    // Fields
+    private HashMap<String, LinkedHashSet<String>> postings;
+    private LinkedHashMap<String, String> texts; // key -> lower-cased text
+
+    // Constructor
+    public TrigramIndex() {
+        postings = new HashMap<>();
+        texts = new LinkedHashMap<>();
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Index text under key, replacing any text indexed for it before
+     */
+    public void put(String key, String text) {
+        String lower = normalize(text);
+        String old = texts.put(key, lower);
+        if (old != null) {
+            if (old.equals(lower)) {
+                return;
+            }
+            removeGrams(key, old);
+        }
+        for (String gram : grams(lower)) {
+            postings.computeIfAbsent(gram, k -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Remove key and its text from the index
+     */
+    public void remove(String key) {
+        String old = texts.remove(key);
+        if (old != null) {
+            removeGrams(key, old);
+        }
+    }
+
+    /**
+     * Drop all entries
+     */
+    public void clear() {
+        postings.clear();
+        texts.clear();
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Find keys whose text contains query (case-insensitive)
+     */
+    public Set<String> search(String query) {
+        String needle = normalize(query);
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+
+        // Too short to form a trigram: check the stored lower-cased texts directly
+        if (needle.length() < GRAM) {
+            for (Map.Entry<String, String> entry : texts.entrySet()) {
+                if (entry.getValue().contains(needle)) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+
+        // Candidates are the keys holding every trigram; start from the rarest one
+        Set<String> rarest = null;
+        for (String gram : grams(needle)) {
+            LinkedHashSet<String> keys = postings.get(gram);
+            if (keys == null) {
+                return result;
+            }
+            if (rarest == null || keys.size() < rarest.size()) {
+                rarest = keys;
+            }
+        }
+
+        for (String key : rarest) {
+            if (texts.get(key).contains(needle)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void removeGrams(String key, String text) {
+        for (String gram : grams(text)) {
+            LinkedHashSet<String> keys = postings.get(gram);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        HashSet<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,14 +5,32 @@ import javax.swing.*;
 public class App {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            try {
-                LibrarySystem system = new LibrarySystem();
+            StartupWindow startup = new StartupWindow();
+            startup.setVisible(true);
 
+            // Load data off the EDT so the window keeps painting
+            BackgroundTasks.run(() -> {
+                try {
+                    return new LibrarySystem();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }, system -> {
+                // Both frames exit the JVM when closed: let queued saves finish, then release the storage
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    BackgroundTasks.shutdown();
+                    system.shutdown();
+                }, "library-shutdown"));
+                startup.dispose();
                 LoginFrame frame = new LoginFrame(system);
                 frame.setVisible(true);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            }, error -> {
+                startup.dispose();
+                System.err.println("Error loading library data: " + error);
+                String message = error.getMessage() != null ? error.getMessage() : error.toString();
+                JOptionPane.showMessageDialog(null, "Failed to load library data:\n" + message, "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            });
         });
     }
 
@@ -0,0 +1,174 @@
+package ui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+import utils.Utils;
+
+/**
+ * Dropdown of completions shown under a text field while the user types
+ */
+public class AutoComplete {
+
+    // Number of completions requested from the source
+    public static final int MAX_SUGGESTIONS = 8;
+
+    private JTextField field;
+    private Function<String, List<String>> source;
+    private Runnable onAccept;
+    private JPopupMenu popup;
+    private JList<String> suggestionList;
+    private boolean adjusting;
+
+    /*
+     * Constructor - use attach()
+     */
+    private AutoComplete(JTextField field, Function<String, List<String>> source, Runnable onAccept) {
+        this.field = field;
+        this.source = source;
+        this.onAccept = onAccept;
+        setupUI();
+    }
+
+    /*
+     * Attach a completion dropdown to a field
+     * source maps the typed prefix to completions (called on the worker thread),
+     * onAccept runs after one is picked
+     */
+    public static AutoComplete attach(JTextField field, Function<String, List<String>> source, Runnable onAccept) {
+        return new AutoComplete(field, source, onAccept);
+    }
+
+    /*
+     * Set up the popup and listeners
+     */
+    private void setupUI() {
+        suggestionList = new JList<>();
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setBackground(Utils.BG_SECONDARY);
+        suggestionList.setForeground(Utils.TEXT_PRIMARY);
+        suggestionList.setSelectionBackground(Utils.ACCENT);
+        suggestionList.setSelectionForeground(Utils.TEXT_PRIMARY);
+        suggestionList.setFocusable(false);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                accept();
+            }
+        });
+
+        popup = new JPopupMenu();
+        popup.setFocusable(false);
+        popup.setLayout(new BorderLayout());
+        popup.setBorder(BorderFactory.createLineBorder(Utils.ACCENT, 1));
+        popup.add(suggestionList, BorderLayout.CENTER);
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updateSuggestions();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updateSuggestions();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                int size = suggestionList.getModel().getSize();
+                int index = suggestionList.getSelectedIndex();
+
+                if (e.getKeyCode() == KeyEvent.VK_DOWN) {
+                    suggestionList.setSelectedIndex(Math.min(index + 1, size - 1));
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_UP) {
+                    suggestionList.setSelectedIndex(Math.max(index - 1, 0));
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_ENTER && index != -1) {
+                    accept();
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    popup.setVisible(false);
+                    e.consume();
+                }
+            }
+        });
+    }
+
+    /*
+     * Refresh the dropdown for the current field text
+     * The source is queried on the worker thread, so typing never waits for a save;
+     * completions for text that has changed in the meantime are dropped
+     */
+    private void updateSuggestions() {
+        if (adjusting || !field.isShowing()) {
+            return;
+        }
+
+        String prefix = field.getText().trim();
+        if (prefix.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        BackgroundTasks.run(() -> source.apply(prefix), suggestions -> {
+            if (field.isShowing() && prefix.equals(field.getText().trim())) {
+                showSuggestions(prefix, suggestions);
+            }
+        }, error -> System.err.println("Error completing \"" + prefix + "\": " + error.getMessage()));
+    }
+
+    /*
+     * Show completions for prefix under the field
+     */
+    private void showSuggestions(String prefix, List<String> suggestions) {
+        // Nothing to offer, or the field already holds the only match
+        if (suggestions.isEmpty() || (suggestions.size() == 1 && suggestions.get(0).equals(prefix))) {
+            popup.setVisible(false);
+            return;
+        }
+
+        suggestionList.setListData(suggestions.toArray(new String[0]));
+        suggestionList.setVisibleRowCount(suggestions.size());
+        popup.setPopupSize(field.getWidth(), suggestionList.getPreferredSize().height + 2);
+        if (!popup.isVisible()) {
+            popup.show(field, 0, field.getHeight());
+        }
+    }
+
+    /*
+     * Put the selected completion into the field
+     */
+    private void accept() {
+        String value = suggestionList.getSelectedValue();
+        popup.setVisible(false);
+        if (value == null) {
+            return;
+        }
+
+        adjusting = true;
+        field.setText(value);
+        adjusting = false;
+
+        if (onAccept != null) {
+            onAccept.run();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ui;
+
+import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs LibrarySystem calls off the Swing EDT and hands the results back on it.
+ * All tasks share one worker thread, so loads and saves run in submission order.
+ */
+public class BackgroundTasks {
+
+    // How long shutdown waits for queued saves to finish
+    private static final int SHUTDOWN_WAIT_SECONDS = 10;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "library-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BackgroundTasks() {
+    }
+
+    /*
+     * Run task on the worker thread, then onSuccess with its result on the EDT;
+     * a failure is reported to the user
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> task, Consumer<T> onSuccess) {
+        return run(task, onSuccess, BackgroundTasks::reportError);
+    }
+
+    /*
+     * Run task like run(task, onSuccess), calling always on the EDT first whether the
+     * task succeeded or failed, e.g. to re-enable the button that started it
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> task, Consumer<T> onSuccess, Runnable always) {
+        return run(task, result -> {
+            always.run();
+            onSuccess.accept(result);
+        }, error -> {
+            always.run();
+            reportError(error);
+        });
+    }
+
+    /*
+     * Run task on the worker thread, then onSuccess or onError on the EDT
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> task, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(task, EXECUTOR);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                onError.accept(error.getCause() != null ? error.getCause() : error);
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+        return future;
+    }
+
+    /*
+     * Tell the user a background task failed; call on the EDT
+     */
+    public static void reportError(Throwable error) {
+        System.err.println("Error in background task: " + error);
+        String message = error.getMessage() != null ? error.getMessage() : error.toString();
+        JOptionPane.showMessageDialog(null, "The operation failed:\n" + message, "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /*
+     * Stop accepting tasks and wait for queued ones to finish
+     * App calls this on exit before it releases the storage, so queued saves still reach it
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
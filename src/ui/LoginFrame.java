@@ -227,9 +227,16 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        // Try to login
-        User user = librarySystem.login(username, password);
+        // Try to login on the worker thread
+        loginButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.login(username, password), this::handleLoginResult,
+                () -> loginButton.setEnabled(true));
+    }
 
+    /*
+     * Open the dashboard, or tell the user the login failed
+     */
+    private void handleLoginResult(User user) {
         if (user != null) {
             // Login successful
             this.dispose();
@@ -272,9 +279,16 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        // Try to register
-        boolean success = librarySystem.registerUser(username, password, "ADMIN");
+        // Try to register (writes users file, so run it in the background)
+        registerButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.registerUser(username, password, "ADMIN"), this::handleRegisterResult,
+                () -> registerButton.setEnabled(true));
+    }
 
+    /*
+     * Report the outcome of a registration
+     */
+    private void handleRegisterResult(boolean success) {
         if (success) {
             JOptionPane.showMessageDialog(this, "Account created successfully!\nYou can now login.");
 
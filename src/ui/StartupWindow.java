@@ -0,0 +1,55 @@
+package ui;
+
+import javax.swing.*;
+import java.awt.*;
+import utils.Utils;
+
+/**
+ * Splash window shown while library data loads in the background
+ */
+public class StartupWindow extends JWindow {
+
+    /*
+     * Constructor - sets up the window
+     */
+    public StartupWindow() {
+        setupUI();
+    }
+
+    /*
+     * Set up the user interface
+     */
+    private void setupUI() {
+        setSize(360, 120);
+        setLocationRelativeTo(null);
+
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBackground(Utils.BG_PRIMARY);
+        panel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Utils.ACCENT, 2),
+                BorderFactory.createEmptyBorder(20, 20, 20, 20)
+        ));
+
+        JLabel titleLabel = new JLabel("Library System");
+        titleLabel.setFont(new Font("Monospace", Font.BOLD, 18));
+        titleLabel.setForeground(Utils.TEXT_PRIMARY);
+        titleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        JLabel statusLabel = new JLabel("Loading library data...");
+        statusLabel.setForeground(Utils.TEXT_SECONDARY);
+        statusLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        panel.add(titleLabel);
+        panel.add(Box.createRigidArea(new Dimension(0, 10)));
+        panel.add(statusLabel);
+        panel.add(Box.createRigidArea(new Dimension(0, 10)));
+        panel.add(progressBar);
+
+        add(panel);
+    }
+}
@@ -0,0 +1,106 @@
+package ui.models;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import core.Book;
+
+/**
+ * Table model that reads book rows lazily from a backing list.
+ * No per-row arrays are built; cells are computed when the table paints them.
+ */
+public class BookTableModel extends AbstractTableModel {
+
+    private static final String[] SEARCH_COLUMNS = {"ISBN", "Title", "Author", "Total Copies", "Available", "Status"};
+    private static final String[] MANAGEMENT_COLUMNS = {"ISBN", "Title", "Author", "Total Copies", "Available", "Times Borrowed"};
+
+    private String[] columns;
+    private List<Book> books;
+
+    /*
+     * Constructor - use forSearch() or forManagement()
+     */
+    private BookTableModel(String[] columns) {
+        this.columns = columns;
+        this.books = new ArrayList<>();
+    }
+
+    /*
+     * Model with an availability status column
+     */
+    public static BookTableModel forSearch() {
+        return new BookTableModel(SEARCH_COLUMNS);
+    }
+
+    /*
+     * Model with a times-borrowed column
+     */
+    public static BookTableModel forManagement() {
+        return new BookTableModel(MANAGEMENT_COLUMNS);
+    }
+
+    /*
+     * Show a new list of books; the model keeps the list, so pass one nobody else
+     * changes, such as the copies LibrarySystem queries return
+     */
+    public void setBooks(List<Book> books) {
+        this.books = books;
+        fireTableDataChanged();
+    }
+
+    /*
+     * Get the book shown in a row
+     */
+    public Book getBookAt(int row) {
+        return row >= 0 && row < books.size() ? books.get(row) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return books.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        if (column == 3 || column == 4 || (column == 5 && columns == MANAGEMENT_COLUMNS)) {
+            return Integer.class;
+        }
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Book book = getBookAt(row);
+        if (book == null) {
+            return null;
+        }
+
+        switch (column) {
+            case 0: return book.getIsbn();
+            case 1: return book.getTitle();
+            case 2: return book.getAuthor();
+            case 3: return book.getTotalCopies();
+            case 4: return book.getAvailableCopies();
+            default:
+                if (columns == SEARCH_COLUMNS) {
+                    return book.isAvailable() ? "Available" : "Unavailable";
+                }
+                return book.getTimesBorrowed();
+        }
+    }
+}
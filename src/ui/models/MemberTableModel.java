@@ -0,0 +1,79 @@
+package ui.models;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import core.Member;
+
+/**
+ * Table model that reads member rows lazily from a backing list
+ */
+public class MemberTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"Member ID", "Name", "Email", "Borrowed Books"};
+
+    private List<Member> members;
+
+    /*
+     * Constructor - starts empty
+     */
+    public MemberTableModel() {
+        this.members = new ArrayList<>();
+    }
+
+    /*
+     * Show a new list of members; the model keeps the list, so pass one nobody else
+     * changes, such as the copies LibrarySystem queries return
+     */
+    public void setMembers(List<Member> members) {
+        this.members = members;
+        fireTableDataChanged();
+    }
+
+    /*
+     * Get the member shown in a row
+     */
+    public Member getMemberAt(int row) {
+        return row >= 0 && row < members.size() ? members.get(row) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return members.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 3 ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Member member = getMemberAt(row);
+        if (member == null) {
+            return null;
+        }
+
+        switch (column) {
+            case 0: return member.getMemberID();
+            case 1: return member.getName();
+            case 2: return member.getEmail();
+            default: return member.getBorrowedBooksCount();
+        }
+    }
+}
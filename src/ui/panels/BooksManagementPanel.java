@@ -1,11 +1,11 @@
 package ui.panels;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 import core.LibrarySystem;
 import core.Book;
+import ui.BackgroundTasks;
+import ui.models.BookTableModel;
 import utils.Utils;
 
 /**
@@ -15,7 +15,7 @@ public class BooksManagementPanel extends JPanel {
 
     private LibrarySystem librarySystem;
     private JTable booksTable;
-    private DefaultTableModel tableModel;
+    private BookTableModel tableModel;
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
@@ -75,14 +75,8 @@ public class BooksManagementPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Utils.BG_PRIMARY);
 
-        // Create table
-        String[] columns = {"ISBN", "Title", "Author", "Total Copies", "Available", "Times Borrowed"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Create table backed by the catalog list
+        tableModel = BookTableModel.forManagement();
 
         booksTable = new JTable(tableModel);
         booksTable.setBackground(Utils.BG_SECONDARY);
@@ -136,25 +130,10 @@ public class BooksManagementPanel extends JPanel {
     }
 
     /*
-     * Load all books into the table
+     * Show all books in the table, read on the worker thread
      */
     private void loadBooks() {
-        tableModel.setRowCount(0);
-
-        List<Book> books = librarySystem.getAllBooks();
-
-        for (Book book : books) {
-            Object[] row = {
-                    book.getIsbn(),
-                    book.getTitle(),
-                    book.getAuthor(),
-                    book.getTotalCopies(),
-                    book.getAvailableCopies(),
-                    book.getTimesBorrowed()
-            };
-
-            tableModel.addRow(row);
-        }
+        BackgroundTasks.run(librarySystem::getAllBooks, tableModel::setBooks);
     }
 
     /*
@@ -217,15 +196,16 @@ public class BooksManagementPanel extends JPanel {
 
             try {
                 int copies = Integer.parseInt(copiesStr);
-                boolean success = librarySystem.addBook(isbn, title, author, copies);
-
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Book added successfully");
-                    loadBooks();
-                    dialog.dispose();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Failed to add book");
-                }
+                okButton.setEnabled(false);
+                BackgroundTasks.run(() -> librarySystem.addBook(isbn, title, author, copies), success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(dialog, "Book added successfully");
+                        loadBooks();
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Failed to add book");
+                    }
+                }, () -> okButton.setEnabled(true));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Copies must be a number");
             }
@@ -251,13 +231,21 @@ public class BooksManagementPanel extends JPanel {
         }
 
         String isbn = (String) tableModel.getValueAt(selectedRow, 0);
-        Book book = librarySystem.searchByISBN(isbn);
-
-        if (book == null) {
-            JOptionPane.showMessageDialog(this, "Book not found");
-            return;
-        }
+        editButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.searchByISBN(isbn), book -> {
+            if (book == null) {
+                JOptionPane.showMessageDialog(this, "Book not found");
+                return;
+            }
+            showEditDialog(book);
+        }, () -> editButton.setEnabled(true));
+    }
 
+    /*
+     * Show dialog to edit a book
+     */
+    private void showEditDialog(Book book) {
+        String isbn = book.getIsbn();
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Edit Book", true);
         dialog.setLayout(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -314,15 +302,16 @@ public class BooksManagementPanel extends JPanel {
 
             try {
                 int copies = Integer.parseInt(copiesStr);
-                boolean success = librarySystem.updateBook(isbn, title, author, copies);
-
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Book updated successfully");
-                    loadBooks();
-                    dialog.dispose();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Failed to update book");
-                }
+                okButton.setEnabled(false);
+                BackgroundTasks.run(() -> librarySystem.updateBook(isbn, title, author, copies), success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(dialog, "Book updated successfully");
+                        loadBooks();
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Failed to update book");
+                    }
+                }, () -> okButton.setEnabled(true));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Copies must be a number");
             }
@@ -358,14 +347,15 @@ public class BooksManagementPanel extends JPanel {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = librarySystem.deleteBook(isbn);
-
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Book deleted successfully");
-                loadBooks();
-            } else {
-                JOptionPane.showMessageDialog(this, "Cannot delete book with borrowed copies");
-            }
+            deleteButton.setEnabled(false);
+            BackgroundTasks.run(() -> librarySystem.deleteBook(isbn), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Book deleted successfully");
+                    loadBooks();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Cannot delete book with borrowed copies");
+                }
+            }, () -> deleteButton.setEnabled(true));
         }
     }
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import core.LibrarySystem;
 import core.Member;
 import core.Book;
 import core.Transaction;
+import ui.AutoComplete;
+import ui.BackgroundTasks;
 import utils.Utils;
 
 /**
@@ -94,6 +96,10 @@ public class IssueBookPanel extends JPanel {
         memberInfoLabel = new JLabel("");
         memberInfoLabel.setForeground(Utils.TEXT_PRIMARY);
 
+        AutoComplete.attach(memberIDField,
+                prefix -> librarySystem.completeMemberID(prefix, AutoComplete.MAX_SUGGESTIONS),
+                this::searchMember);
+
         memberPanel.add(memberLabel);
         memberPanel.add(memberIDField);
         memberPanel.add(searchMemberButton);
@@ -116,6 +122,10 @@ public class IssueBookPanel extends JPanel {
         bookInfoLabel = new JLabel("");
         bookInfoLabel.setForeground(Utils.TEXT_PRIMARY);
 
+        AutoComplete.attach(isbnField,
+                prefix -> librarySystem.completeISBN(prefix, AutoComplete.MAX_SUGGESTIONS),
+                this::searchBook);
+
         bookPanel.add(bookLabel);
         bookPanel.add(isbnField);
         bookPanel.add(searchBookButton);
@@ -155,16 +165,19 @@ public class IssueBookPanel extends JPanel {
             return;
         }
 
-        selectedMember = librarySystem.findMemberByID(memberID);
+        searchMemberButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.findMemberByID(memberID), member -> {
+            selectedMember = member;
 
-        if (selectedMember == null) {
-            memberInfoLabel.setText("Not found");
-            JOptionPane.showMessageDialog(this, "Member not found");
-        } else {
-            memberInfoLabel.setText("Found: " + selectedMember.getName());
-        }
+            if (selectedMember == null) {
+                memberInfoLabel.setText("Not found");
+                JOptionPane.showMessageDialog(this, "Member not found");
+            } else {
+                memberInfoLabel.setText("Found: " + selectedMember.getName());
+            }
 
-        updateIssueButton();
+            updateIssueButton();
+        }, () -> searchMemberButton.setEnabled(true));
     }
 
     /*
@@ -178,16 +191,19 @@ public class IssueBookPanel extends JPanel {
             return;
         }
 
-        selectedBook = librarySystem.searchByISBN(isbn);
+        searchBookButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.searchByISBN(isbn), book -> {
+            selectedBook = book;
 
-        if (selectedBook == null) {
-            bookInfoLabel.setText("Not found");
-            JOptionPane.showMessageDialog(this, "Book not found");
-        } else {
-            bookInfoLabel.setText("Found: " + selectedBook.getTitle());
-        }
+            if (selectedBook == null) {
+                bookInfoLabel.setText("Not found");
+                JOptionPane.showMessageDialog(this, "Book not found");
+            } else {
+                bookInfoLabel.setText("Found: " + selectedBook.getTitle());
+            }
 
-        updateIssueButton();
+            updateIssueButton();
+        }, () -> searchBookButton.setEnabled(true));
     }
 
     /*
@@ -214,11 +230,18 @@ public class IssueBookPanel extends JPanel {
             return;
         }
 
-        Transaction transaction = librarySystem.issueBook(
-                selectedMember.getMemberID(),
-                selectedBook.getIsbn()
-        );
+        String memberID = selectedMember.getMemberID();
+        String isbn = selectedBook.getIsbn();
+
+        issueButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.issueBook(memberID, isbn), this::handleIssueResult,
+                () -> updateIssueButton());
+    }
 
+    /*
+     * Report the outcome of an issue and reset the form
+     */
+    private void handleIssueResult(Transaction transaction) {
         if (transaction != null) {
             JOptionPane.showMessageDialog(this, "Book issued successfully!");
 
@@ -237,6 +260,7 @@ public class IssueBookPanel extends JPanel {
             updateIssueButton();
         } else {
             JOptionPane.showMessageDialog(this, "Failed to issue book");
+            updateIssueButton();
         }
     }
 }
\ No newline at end of file
@@ -1,11 +1,11 @@
 package ui.panels;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 import core.LibrarySystem;
 import core.Member;
+import ui.BackgroundTasks;
+import ui.models.MemberTableModel;
 import utils.Utils;
 
 /**
@@ -15,7 +15,7 @@ public class MemberManagementPanel extends JPanel {
 
     private LibrarySystem librarySystem;
     private JTable membersTable;
-    private DefaultTableModel tableModel;
+    private MemberTableModel tableModel;
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
@@ -74,14 +74,8 @@ public class MemberManagementPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Utils.BG_PRIMARY);
 
-        // Create table
-        String[] columns = {"Member ID", "Name", "Email", "Borrowed Books"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Create table backed by the member list
+        tableModel = new MemberTableModel();
 
         membersTable = new JTable(tableModel);
         membersTable.setBackground(Utils.BG_SECONDARY);
@@ -135,23 +129,10 @@ public class MemberManagementPanel extends JPanel {
     }
 
     /*
-     * Load all members into the table
+     * Show all members in the table, read on the worker thread
      */
     private void loadMembers() {
-        tableModel.setRowCount(0);
-
-        List<Member> members = librarySystem.getAllMembers();
-
-        for (Member member : members) {
-            Object[] row = {
-                    member.getMemberID(),
-                    member.getName(),
-                    member.getEmail(),
-                    member.getBorrowedBooksCount()
-            };
-
-            tableModel.addRow(row);
-        }
+        BackgroundTasks.run(librarySystem::getAllMembers, tableModel::setMembers);
     }
 
     /*
@@ -209,15 +190,16 @@ public class MemberManagementPanel extends JPanel {
                 return;
             }
 
-            boolean success = librarySystem.addMember(id, name, email);
-
-            if (success) {
-                JOptionPane.showMessageDialog(dialog, "Member added successfully");
-                loadMembers();
-                dialog.dispose();
-            } else {
-                JOptionPane.showMessageDialog(dialog, "Failed to add member");
-            }
+            okButton.setEnabled(false);
+            BackgroundTasks.run(() -> librarySystem.addMember(id, name, email), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(dialog, "Member added successfully");
+                    loadMembers();
+                    dialog.dispose();
+                } else {
+                    JOptionPane.showMessageDialog(dialog, "Failed to add member");
+                }
+            }, () -> okButton.setEnabled(true));
         });
 
         // Cancel button action
@@ -240,13 +222,21 @@ public class MemberManagementPanel extends JPanel {
         }
 
         String memberID = (String) tableModel.getValueAt(selectedRow, 0);
-        Member member = librarySystem.findMemberByID(memberID);
-
-        if (member == null) {
-            JOptionPane.showMessageDialog(this, "Member not found");
-            return;
-        }
+        editButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.findMemberByID(memberID), member -> {
+            if (member == null) {
+                JOptionPane.showMessageDialog(this, "Member not found");
+                return;
+            }
+            showEditDialog(member);
+        }, () -> editButton.setEnabled(true));
+    }
 
+    /*
+     * Show dialog to edit a member
+     */
+    private void showEditDialog(Member member) {
+        String memberID = member.getMemberID();
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Edit Member", true);
         dialog.setLayout(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -298,15 +288,16 @@ public class MemberManagementPanel extends JPanel {
                 return;
             }
 
-            boolean success = librarySystem.updateMember(memberID, name, email);
-
-            if (success) {
-                JOptionPane.showMessageDialog(dialog, "Member updated successfully");
-                loadMembers();
-                dialog.dispose();
-            } else {
-                JOptionPane.showMessageDialog(dialog, "Failed to update member");
-            }
+            okButton.setEnabled(false);
+            BackgroundTasks.run(() -> librarySystem.updateMember(memberID, name, email), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(dialog, "Member updated successfully");
+                    loadMembers();
+                    dialog.dispose();
+                } else {
+                    JOptionPane.showMessageDialog(dialog, "Failed to update member");
+                }
+            }, () -> okButton.setEnabled(true));
         });
 
         // Cancel button action
@@ -339,14 +330,15 @@ public class MemberManagementPanel extends JPanel {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = librarySystem.deleteMember(memberID);
-
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Member deleted successfully");
-                loadMembers();
-            } else {
-                JOptionPane.showMessageDialog(this, "Cannot delete member with borrowed books");
-            }
+            deleteButton.setEnabled(false);
+            BackgroundTasks.run(() -> librarySystem.deleteMember(memberID), success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Member deleted successfully");
+                    loadMembers();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Cannot delete member with borrowed books");
+                }
+            }, () -> deleteButton.setEnabled(true));
         }
     }
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import java.util.List;
 import core.LibrarySystem;
 import core.Member;
 import core.Transaction;
+import ui.AutoComplete;
+import ui.BackgroundTasks;
 import utils.Utils;
 
 /**
@@ -83,6 +85,10 @@ public class ReturnBookPanel extends JPanel {
         searchButton = new JButton("Search");
         searchButton.addActionListener(e -> searchMember());
 
+        AutoComplete.attach(memberIDField,
+                prefix -> librarySystem.completeMemberID(prefix, AutoComplete.MAX_SUGGESTIONS),
+                this::searchMember);
+
         searchPanel.add(memberLabel);
         searchPanel.add(memberIDField);
         searchPanel.add(searchButton);
@@ -161,28 +167,37 @@ public class ReturnBookPanel extends JPanel {
             return;
         }
 
-        selectedMember = librarySystem.findMemberByID(memberID);
+        searchButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.findMemberByID(memberID), member -> {
+            selectedMember = member;
 
-        if (selectedMember == null) {
-            JOptionPane.showMessageDialog(this, "Member not found");
-            tableModel.setRowCount(0);
-            returnButton.setEnabled(false);
-            return;
-        }
+            if (selectedMember == null) {
+                JOptionPane.showMessageDialog(this, "Member not found");
+                tableModel.setRowCount(0);
+                returnButton.setEnabled(false);
+                return;
+            }
 
-        loadBorrowedBooks();
+            loadBorrowedBooks();
+        }, () -> searchButton.setEnabled(true));
     }
 
     /*
      * Load borrowed books for the member
      */
     private void loadBorrowedBooks() {
+        String memberID = selectedMember.getMemberID();
+        BackgroundTasks.run(() -> librarySystem.getActiveTransactions(memberID), this::showBorrowedBooks);
+    }
+
+    /*
+     * Fill the table with the member's active transactions
+     */
+    private void showBorrowedBooks(List<Transaction> transactions) {
         // Clear table first
         tableModel.setRowCount(0);
 
-        // Get active transactions
-        activeTransactions = librarySystem.getActiveTransactions(selectedMember.getMemberID());
-
+        activeTransactions = transactions;
 
         // Check if member has borrowed books
         if (activeTransactions == null || activeTransactions.isEmpty()) {
@@ -226,9 +241,16 @@ public class ReturnBookPanel extends JPanel {
         // Get the transaction from the list
         Transaction transaction = activeTransactions.get(selectedRow);
 
-        // Return the book
-        Transaction returnedTransaction = librarySystem.returnBook(transaction.getTransactionID());
+        // Return the book in the background
+        returnButton.setEnabled(false);
+        BackgroundTasks.run(() -> librarySystem.returnBook(transaction.getTransactionID()), this::handleReturnResult,
+                () -> returnButton.setEnabled(true));
+    }
 
+    /*
+     * Report the outcome of a return and refresh the table
+     */
+    private void handleReturnResult(Transaction returnedTransaction) {
         if (returnedTransaction != null) {
             // Calculate fine
             double fine = returnedTransaction.getFine();
@@ -1,14 +1,17 @@
 package ui.panels;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import core.LibrarySystem;
 import core.Book;
 import ui.*;
+import ui.models.BookTableModel;
 import utils.Utils;
 
 /**
@@ -16,12 +19,17 @@ import utils.Utils;
  */
 public class SearchBookPanel extends JPanel {
 
+    // Delay after the last keystroke before a search runs
+    private static final int DEBOUNCE_MS = 250;
+
     private LibrarySystem librarySystem;
     private JTextField searchField;
     private JComboBox<String> searchTypeCombo;
     private JButton searchButton;
     private JTable resultsTable;
-    private DefaultTableModel tableModel;
+    private BookTableModel tableModel;
+    private Timer debounceTimer;
+    private SwingWorker<List<Book>, Void> searchWorker;
 
     /*
      * Constructor - sets up the panel
@@ -80,6 +88,27 @@ public class SearchBookPanel extends JPanel {
         searchButton = new JButton("Search");
         searchButton.addActionListener(e -> performSearch());
 
+        // Search as the user types, once typing pauses
+        debounceTimer = new Timer(DEBOUNCE_MS, e -> startSearch(false));
+        debounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+        });
+        searchTypeCombo.addActionListener(e -> debounceTimer.restart());
+
         searchPanel.add(searchByLabel);
         searchPanel.add(searchTypeCombo);
         searchPanel.add(searchField);
@@ -92,9 +121,6 @@ public class SearchBookPanel extends JPanel {
         return panel;
     }
 
-    /*
-     * Create the table panel to display search results
-     */
     /*
      * Create the table panel to display search results
      */
@@ -102,14 +128,8 @@ public class SearchBookPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Utils.BG_PRIMARY);
 
-        // Create table columns
-        String[] columns = {"ISBN", "Title", "Author", "Total Copies", "Available", "Status"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Create table model backed by the result list
+        tableModel = BookTableModel.forSearch();
 
         // Create table
         resultsTable = new JTable(tableModel);
@@ -147,66 +167,95 @@ public class SearchBookPanel extends JPanel {
         return panel;
     }
     /*
-     * Perform search based on user input
+     * Perform search based on user input (Search button)
      */
     private void performSearch() {
-        String query = searchField.getText().trim();
+        debounceTimer.stop();
 
-        if (query.isEmpty()) {
+        if (searchField.getText().trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please enter a search term");
             return;
         }
 
-        String searchType = (String) searchTypeCombo.getSelectedItem();
-        List<Book> results = null;
-
-        if (searchType.equals("Title")) {
-            results = librarySystem.searchByTitle(query);
-        } else if (searchType.equals("Author")) {
-            results = librarySystem.searchByAuthor(query);
-        } else if (searchType.equals("ISBN")) {
-            Book book = librarySystem.searchByISBN(query);
-            if (book != null) {
-                results = List.of(book);
-            }
-        }
-
-        if (results == null || results.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "No books found");
-            tableModel.setRowCount(0);
-        } else {
-            displayResults(results);
-        }
+        startSearch(true);
     }
 
     /*
      * Load and display all books
      */
     private void loadAllBooks() {
-        List<Book> books = librarySystem.getAllBooks();
-        displayResults(books);
+        startSearch(false);
     }
 
     /*
-     * Display book results in the table
+     * Run the current query off the EDT, replacing any search still in flight
      */
-    private void displayResults(List<Book> books) {
-        tableModel.setRowCount(0);
+    private void startSearch(boolean reportEmpty) {
+        String query = searchField.getText().trim();
+        String searchType = (String) searchTypeCombo.getSelectedItem();
 
-        for (Book book : books) {
-            String status = book.isAvailable() ? "Available" : "Unavailable";
+        if (searchWorker != null) {
+            searchWorker.cancel(true);
+        }
 
-            Object[] row = {
-                    book.getIsbn(),
-                    book.getTitle(),
-                    book.getAuthor(),
-                    book.getTotalCopies(),
-                    book.getAvailableCopies(),
-                    status
-            };
+        searchWorker = new SwingWorker<>() {
+            @Override
+            protected List<Book> doInBackground() {
+                return findBooks(query, searchType);
+            }
 
-            tableModel.addRow(row);
+            @Override
+            protected void done() {
+                // A newer search has replaced this one
+                if (isCancelled() || searchWorker != this) {
+                    return;
+                }
+                try {
+                    List<Book> results = get();
+                    displayResults(results);
+                    if (reportEmpty && results.isEmpty()) {
+                        JOptionPane.showMessageDialog(SearchBookPanel.this, "No books found");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    System.err.println("Error searching books: " + e.getCause());
+                    JOptionPane.showMessageDialog(SearchBookPanel.this,
+                            "Search failed:\n" + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        searchWorker.execute();
+    }
+
+    /*
+     * Look up books for a query; an empty query shows the whole catalog.
+     * Runs on the worker thread, so it only calls LibrarySystem queries, which take its
+     * shared lock and return new lists rather than the live catalogue.
+     */
+    private List<Book> findBooks(String query, String searchType) {
+        if (query.isEmpty()) {
+            return librarySystem.getAllBooks();
+        }
+
+        if (searchType.equals("Title")) {
+            return librarySystem.searchByTitle(query);
+        } else if (searchType.equals("Author")) {
+            return librarySystem.searchByAuthor(query);
+        } else if (searchType.equals("ISBN")) {
+            Book book = librarySystem.searchByISBN(query);
+            if (book != null) {
+                return List.of(book);
+            }
         }
+        return List.of();
+    }
+
+    /*
+     * Display book results in the table with a single model update
+     */
+    private void displayResults(List<Book> books) {
+        tableModel.setBooks(books);
     }
 
     /*
@@ -219,8 +268,7 @@ public class SearchBookPanel extends JPanel {
             return;
         }
 
-        String isbn = (String) tableModel.getValueAt(selectedRow, 0);
-        Book book = librarySystem.searchByISBN(isbn);
+        Book book = tableModel.getBookAt(selectedRow);
 
         if (book != null) {
             Frame parent = (Frame) SwingUtilities.getWindowAncestor(this);